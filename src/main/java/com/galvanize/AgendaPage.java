@@ -0,0 +1,80 @@
+package com.galvanize;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+// One page of upcoming items, plus the cursor that picks up right after it. A cursor is the
+// start time of the last item handed out and how many items starting at exactly that time
+// have been handed out so far, so resuming is a seek rather than a rescan.
+public final class AgendaPage {
+
+    private static final long MIN_SECOND = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_SECOND = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+
+    private final List<Scheduable> items;
+    private final String nextCursor;
+    private final boolean more;
+
+    AgendaPage(List<Scheduable> items, LocalDateTime resumeAt, int skip, boolean more) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = encode(resumeAt, skip);
+        this.more = more;
+    }
+
+    public List<Scheduable> getItems() {
+        return items;
+    }
+
+    // still worth keeping when hasMore() is false: items added later show up on the next fetch
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return more;
+    }
+
+    static String encode(LocalDateTime startsAt, int skip) {
+        ByteBuffer bytes = ByteBuffer.allocate(16)
+                .putLong(startsAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(startsAt.getNano())
+                .putInt(skip);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    static LocalDateTime startsAt(String cursor) {
+        ByteBuffer bytes = decode(cursor);
+        return LocalDateTime.ofEpochSecond(bytes.getLong(0), bytes.getInt(8), ZoneOffset.UTC);
+    }
+
+    static int skip(String cursor) {
+        return decode(cursor).getInt(12);
+    }
+
+    // only hands back cursors whose start time LocalDateTime can hold
+    private static ByteBuffer decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length != 16) throw invalid(cursor);
+        long second = buffer.getLong(0);
+        int nano = buffer.getInt(8);
+        if (second < MIN_SECOND || second > MAX_SECOND || nano < 0 || nano > 999_999_999 || buffer.getInt(12) < 0) {
+            throw invalid(cursor);
+        }
+        return buffer;
+    }
+
+    private static IllegalArgumentException invalid(String cursor) {
+        return new IllegalArgumentException("Invalid agenda cursor: " + cursor);
+    }
+
+}
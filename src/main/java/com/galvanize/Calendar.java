@@ -3,65 +3,422 @@ package com.galvanize;
 import com.galvanize.formatters.Formattable;
 import com.galvanize.formatters.MonthlyFormatter;
 import com.galvanize.formatters.ScheduleFormatter;
+import com.galvanize.storage.ScheduleStore;
+import com.galvanize.storage.TreeScheduleStore;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-
-import static java.util.stream.Collectors.toList;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 public class Calendar {
 
-    private final List<Scheduable> schedulables = new ArrayList<>();
+    private final ScheduleStore store;
+
+    // recurring series are kept apart from the store and expanded only inside the window being read
+    private final List<Recurring> series;
+
+    // Spannable items, guarded by the calendar's monitor so that concurrent stores stay safe to write to.
+    // Calendars over a read-only store build it on the first interval query instead of up front.
+    private IntervalIndex intervals;
+
+    private final List<CalendarListener> listeners = new CopyOnWriteArrayList<>();
+
+    public Calendar() {
+        this(new TreeScheduleStore());
+    }
+
+    public Calendar(ScheduleStore store) {
+        this(store, new CopyOnWriteArrayList<>());
+    }
+
+    Calendar(ScheduleStore store, List<Recurring> series) {
+        this.store = store;
+        this.series = series;
+        if (!store.isReadOnly()) intervals = indexOf(store.items());
+    }
 
     public void addSchedulable(Scheduable schedulable) {
-        schedulables.add(schedulable);
-        schedulables.sort((a, b) -> {
-            LocalDateTime dateA = getLocalDateTime(a);
-            LocalDateTime dateB = getLocalDateTime(b);
-            return dateA.compareTo(dateB);
-        });
+        insert(schedulable);
+        for (CalendarListener listener : listeners) listener.added(schedulable);
+    }
+
+    public void addAll(Collection<? extends Scheduable> items) {
+        List<Scheduable> single = new ArrayList<>(items.size());
+        for (Scheduable item : items) {
+            if (item instanceof Recurring) {
+                series.add((Recurring) item);
+            } else {
+                single.add(item);
+            }
+        }
+        store.addAll(single);
+        synchronized (this) {
+            single.stream()
+                    .filter(item -> item instanceof Spannable)
+                    .forEach(item -> intervals.add((Spannable) item));
+        }
+        for (CalendarListener listener : listeners) items.forEach(listener::added);
+    }
+
+    public boolean remove(Scheduable schedulable) {
+        if (!delete(schedulable)) return false;
+        for (CalendarListener listener : listeners) listener.removed(schedulable);
+        return true;
+    }
+
+    // Only a calendar moves an item, and only while it is out of the store and the interval index,
+    // so neither is ever left holding it under its old start time.
+    public boolean reschedule(Scheduable schedulable, LocalDateTime startsAt) {
+        if (!(schedulable instanceof Event) && !(schedulable instanceof Reminder)) {
+            throw new IllegalArgumentException(String.format("%s can't be rescheduled", schedulable));
+        }
+        LocalDateTime previousStart = schedulable.getStartTime();
+        if (!delete(schedulable)) return false;
+        if (schedulable instanceof Event) {
+            ((Event) schedulable).reschedule(startsAt);
+        } else {
+            ((Reminder) schedulable).reschedule(startsAt);
+        }
+        insert(schedulable);
+        for (CalendarListener listener : listeners) listener.rescheduled(schedulable, previousStart);
+        return true;
+    }
+
+    // skips one occurrence of a series in this calendar; false if the series isn't in it
+    public boolean except(RecurringEvent recurring, LocalDateTime occurrenceStartsAt) {
+        if (!series.contains(recurring)) return false;
+        recurring.except(occurrenceStartsAt);
+        for (CalendarListener listener : listeners) listener.changed(recurring);
+        return true;
+    }
+
+    // listeners hear about each change after it has been made, on the thread that made it
+    public void addListener(CalendarListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CalendarListener listener) {
+        listeners.remove(listener);
+    }
+
+    // for checking that listeners which are done with a calendar really let go of it
+    int listenerCount() {
+        return listeners.size();
+    }
+
+    // a read-only calendar that keeps showing what this one holds right now
+    public Calendar snapshot() {
+        return new Calendar(store.snapshot(), new ArrayList<>(series));
+    }
+
+    // true while a write the listeners may have heard about can't be read yet
+    public boolean hasUnpublishedWrites() {
+        return store.hasUnpublishedWrites();
+    }
+
+    // recurring series count once each, however many times they occur
+    public int size() {
+        return store.size() + series.size();
     }
 
     public List<Scheduable> items() {
-        return schedulables;
+        List<Scheduable> items = store.items();
+        if (series.isEmpty()) return items;
+        items.addAll(series);
+        items.sort(Comparator.comparing(Scheduable::getStartTime));
+        return items;
     }
 
     public List<LocalDate> dates() {
-        return schedulables
-                .stream()
-                .map(this::getLocalDateTime)
-                .map(LocalDateTime::toLocalDate)
-                .distinct()
-                .collect(toList());
+        if (series.isEmpty()) return store.dates();
+        LocalDateTime first = getFirstDateTime();
+        LocalDateTime last = getLastDateTime();
+        Set<LocalDate> dates = new TreeSet<>(store.dates());
+        for (Recurring recurring : series) {
+            recurring.occurrences(first, last.plusNanos(1))
+                    .forEachRemaining(occurrence -> dates.add(occurrence.getStartTime().toLocalDate()));
+        }
+        return new ArrayList<>(dates);
     }
 
     public List<String> descriptionsFor(LocalDate date) {
-        return schedulables.stream()
-                .filter(item -> getLocalDateTime(item).toLocalDate().equals(date))
-                .map(Object::toString)
-                .collect(toList());
+        List<String> descriptions = new ArrayList<>();
+        StringBuilder description = new StringBuilder(96);
+        for (Scheduable item : between(date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            description.setLength(0);
+            DisplayText.append(description, item);
+            descriptions.add(description.toString());
+        }
+        return descriptions;
+    }
+
+    // appends the day's descriptions to `out`, a line each, without making a string per item;
+    // returns how many there were
+    public int descriptionsFor(LocalDate date, StringBuilder out) {
+        int count = 0;
+        for (Scheduable item : between(date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            DisplayText.append(out, item);
+            out.append('\n');
+            count++;
+        }
+        return count;
+    }
+
+    // a live view, like the store's: series added later show up in later iterations
+    public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+        Collection<Scheduable> stored = store.between(from, to);
+        return new AbstractCollection<Scheduable>() {
+            @Override
+            public Iterator<Scheduable> iterator() {
+                if (series.isEmpty()) return stored.iterator();
+                List<Iterator<? extends Scheduable>> sources = new ArrayList<>();
+                sources.add(stored.iterator());
+                series.forEach(each -> sources.add(each.occurrences(from, to)));
+                return new MergingIterator<>(sources, Comparator.comparing(Scheduable::getStartTime));
+            }
+
+            @Override
+            public int size() {
+                if (series.isEmpty()) return stored.size();
+                int size = 0;
+                for (Iterator<Scheduable> iterator = iterator(); iterator.hasNext(); iterator.next()) size++;
+                return size;
+            }
+        };
+    }
+
+    // the first `limit` items starting at or after `from`, and a cursor for the page after
+    public AgendaPage agenda(LocalDateTime from, int limit) {
+        return agenda(from, 0, null, limit);
+    }
+
+    // the same, leaving out items starting at or after `to`
+    public AgendaPage agenda(LocalDateTime from, LocalDateTime to, int limit) {
+        if (from.isAfter(to)) throw new IllegalArgumentException("The range ends before it starts");
+        return agenda(from, 0, to, limit);
+    }
+
+    // Carries on after the page the cursor came from. Items added since then show up if they start
+    // after the last item already handed out; removing items that start at exactly that time can
+    // make the next page skip as many of the items sharing it.
+    public AgendaPage agenda(String cursor, int limit) {
+        return agenda(AgendaPage.startsAt(cursor), AgendaPage.skip(cursor), null, limit);
+    }
+
+    public AgendaPage agenda(String cursor, LocalDateTime to, int limit) {
+        return agenda(AgendaPage.startsAt(cursor), AgendaPage.skip(cursor), to, limit);
+    }
+
+    public List<Spannable> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Spannable> overlapping;
+        synchronized (this) {
+            overlapping = intervals().overlapping(from, to);
+        }
+        return withOccurrences(overlapping, from, to, occurrence -> true);
+    }
+
+    public List<Spannable> occurringAt(LocalDateTime dateTime) {
+        List<Spannable> occurring;
+        synchronized (this) {
+            occurring = intervals().at(dateTime);
+        }
+        return withOccurrences(occurring, dateTime, dateTime.plusNanos(1), occurrence -> true);
+    }
+
+    public List<Spannable> within(LocalDateTime from, LocalDateTime to) {
+        List<Spannable> within;
+        synchronized (this) {
+            within = intervals().within(from, to);
+        }
+        return withOccurrences(within, from, to, occurrence ->
+                !occurrence.getStartTime().isBefore(from) && !occurrence.getEndsAt().isAfter(to));
+    }
+
+    public List<Spannable> containing(LocalDateTime from, LocalDateTime to) {
+        List<Spannable> containing;
+        synchronized (this) {
+            containing = intervals().containing(from, to);
+        }
+        return withOccurrences(containing, from, from.plusNanos(1), occurrence ->
+                !occurrence.getStartTime().isAfter(from) && !occurrence.getEndsAt().isBefore(to));
+    }
+
+    public List<Spannable> conflictsWith(Spannable item) {
+        List<Spannable> conflicts = overlapping(item.getStartTime(), item.getEndsAt());
+        conflicts.removeIf(item::equals);
+        return conflicts;
+    }
+
+    // Spannable items overlapping [from, to) in start time order; only the ones already
+    // under way at `from` are looked up up front, the rest are read as the iterator advances
+    public Iterator<Spannable> spans(LocalDateTime from, LocalDateTime to) {
+        List<Spannable> underway;
+        synchronized (this) {
+            underway = intervals().overlapping(from, from);
+        }
+        underway = withOccurrences(underway, from, from, occurrence -> occurrence.getStartTime().isBefore(from));
+        Iterator<Spannable> started = underway.iterator();
+        Iterator<Scheduable> later = between(from, to).iterator();
+        return new Iterator<Spannable>() {
+            private Spannable next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Spannable next() {
+                if (next == null) throw new NoSuchElementException();
+                Spannable current = next;
+                next = advance();
+                return current;
+            }
+
+            private Spannable advance() {
+                if (started.hasNext()) return started.next();
+                while (later.hasNext()) {
+                    Scheduable item = later.next();
+                    if (item instanceof Spannable) return (Spannable) item;
+                }
+                return null;
+            }
+        };
     }
 
     public LocalDateTime getFirstDateTime() {
-        if (schedulables.isEmpty()) return null;
-        Scheduable item = schedulables.get(0);
-        return getLocalDateTime(item);
+        LocalDateTime first = store.getFirstDateTime();
+        for (Recurring recurring : series) {
+            if (first == null || recurring.getStartTime().isBefore(first)) first = recurring.getStartTime();
+        }
+        return first;
     }
 
+    // series that never end stretch as far as the rest of the calendar does
     public LocalDateTime getLastDateTime() {
-        if (schedulables.isEmpty()) return null;
-        Scheduable item = schedulables.size() == 1 ? schedulables.get(0) : schedulables.get(schedulables.size() - 1);
-        return getLocalDateTime(item);
+        LocalDateTime last = store.getLastDateTime();
+        for (Recurring recurring : series) {
+            LocalDateTime lastStart = recurring.getLastStartTime();
+            if (lastStart == null) lastStart = recurring.getStartTime();
+            if (last == null || lastStart.isAfter(last)) last = lastStart;
+        }
+        return last;
     }
 
     public String format(Formattable format) {
         return format.format(this);
     }
 
-    private LocalDateTime getLocalDateTime(Scheduable item) {
-        return item.getStartTime();
+    // streams the formatted calendar to `out` instead of building it up as one string
+    public void format(Formattable format, Appendable out) throws IOException {
+        format.format(this, out);
+    }
+
+    // Reads forward through windows that double in length, each one a seek into the store, so a
+    // page costs about the same however far into the calendar it starts and whatever the store.
+    private AgendaPage agenda(LocalDateTime from, int skip, LocalDateTime to, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("A page must hold at least one item");
+        List<Scheduable> page = new ArrayList<>(limit);
+        LocalDateTime resumeAt = from;
+        int resumeSkip = skip;
+        int skipped = 0;
+        boolean more = false;
+        LocalDateTime end = horizon();
+        if (to != null && end != null && to.isBefore(end)) end = to;
+        LocalDateTime windowStart = from;
+        Duration window = Duration.ofDays(1);
+        while (!more && end != null && windowStart.isBefore(end)) {
+            LocalDateTime windowEnd = Duration.between(windowStart, end).compareTo(window) <= 0 ? end : windowStart.plus(window);
+            for (Scheduable item : between(windowStart, windowEnd)) {
+                LocalDateTime startsAt = item.getStartTime();
+                if (skipped < skip && startsAt.equals(from)) {
+                    skipped++;
+                    continue;
+                }
+                if (page.size() == limit) {
+                    more = true;
+                    break;
+                }
+                page.add(item);
+                resumeSkip = startsAt.equals(resumeAt) ? resumeSkip + 1 : 1;
+                resumeAt = startsAt;
+            }
+            windowStart = windowEnd;
+            window = window.multipliedBy(2);
+        }
+        return new AgendaPage(page, resumeAt, resumeSkip, more);
+    }
+
+    // just past the last start time in the calendar, or null when it's empty
+    LocalDateTime horizon() {
+        LocalDateTime last = store.getLastDateTime();
+        for (Recurring recurring : series) {
+            LocalDateTime lastStart = recurring.getLastStartTime();
+            if (lastStart == null) return LocalDateTime.MAX;
+            if (last == null || lastStart.isAfter(last)) last = lastStart;
+        }
+        return last == null ? null : last.plusNanos(1);
+    }
+
+    // adds the occurrences overlapping [from, to) that pass the filter, keeping start time order
+    private List<Spannable> withOccurrences(List<Spannable> found, LocalDateTime from, LocalDateTime to, Predicate<Spannable> filter) {
+        if (series.isEmpty()) return found;
+        for (Recurring recurring : series) {
+            recurring.occurrences(from.minus(recurring.getDuration()), to).forEachRemaining(occurrence -> {
+                if (occurrence.getEndsAt().isAfter(from) && filter.test(occurrence)) found.add(occurrence);
+            });
+        }
+        found.sort(Comparator.comparing(Spannable::getStartTime));
+        return found;
+    }
+
+    private IntervalIndex intervals() {
+        if (intervals == null) intervals = indexOf(store.items());
+        return intervals;
+    }
+
+    private void insert(Scheduable schedulable) {
+        if (schedulable instanceof Recurring) {
+            series.add((Recurring) schedulable);
+            return;
+        }
+        store.add(schedulable);
+        if (schedulable instanceof Spannable) {
+            synchronized (this) {
+                intervals.add((Spannable) schedulable);
+            }
+        }
+    }
+
+    private boolean delete(Scheduable schedulable) {
+        if (schedulable instanceof Recurring) return series.remove(schedulable);
+        if (!store.remove(schedulable)) return false;
+        if (schedulable instanceof Spannable) {
+            synchronized (this) {
+                intervals().remove((Spannable) schedulable);
+            }
+        }
+        return true;
+    }
+
+    private static IntervalIndex indexOf(Collection<Scheduable> items) {
+        IntervalIndex index = new IntervalIndex();
+        items.stream()
+                .filter(item -> item instanceof Spannable)
+                .forEach(item -> index.add((Spannable) item));
+        return index;
     }
 
 }
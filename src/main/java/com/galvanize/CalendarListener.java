@@ -0,0 +1,21 @@
+package com.galvanize;
+
+import java.time.LocalDateTime;
+
+public interface CalendarListener {
+
+    void added(Scheduable item);
+
+    void removed(Scheduable item);
+
+    // the item has already moved; previousStart is where it used to be
+    void rescheduled(Scheduable item, LocalDateTime previousStart);
+
+    // the item stayed put but what it covers changed, as when a series loses an occurrence; by
+    // default that reads as the item being taken out and put back
+    default void changed(Scheduable item) {
+        removed(item);
+        added(item);
+    }
+
+}
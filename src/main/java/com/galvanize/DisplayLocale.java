@@ -0,0 +1,84 @@
+package com.galvanize;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.FormatStyle;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Everything locale-specific that display text needs, looked up once per locale and kept: the
+// month names calendar headings use, and the formatter item date-times are written with.
+// getDefault() keeps DATE_FORMATTER's "MMM d, y h:mm a" for toString(), with the month
+// abbreviations and am/pm markers DisplayText spells it with by hand; of(locale) writes that
+// locale's own medium date and short time.
+public final class DisplayLocale {
+
+    static final String DATE_TIME_PATTERN = "MMM d, y h:mm a";
+
+    private static final ConcurrentHashMap<Locale, DisplayLocale> LOCALES = new ConcurrentHashMap<>();
+    private static final DisplayLocale DEFAULT = new DisplayLocale(ICalendarItem.DEFAULT_DATE_FORMATTER.getLocale(), DATE_TIME_PATTERN);
+
+    private final Locale locale;
+    private final String[] monthNames = new String[12];
+    private final String[] shortMonthNames = new String[12];
+    private final String[] amPm = new String[2];
+    private final DateTimeFormatter dateTimeFormatter;
+
+    private DisplayLocale(Locale locale, String pattern) {
+        this.locale = locale;
+        DateTimeFormatter shortMonths = DateTimeFormatter.ofPattern("MMM", locale);
+        for (Month month : Month.values()) {
+            // headings stand alone, which some languages inflect differently from a month in a
+            // date; Java 8's own locale data has no standalone names for most locales and answers
+            // with the month's number, so those keep the names used in dates
+            String standalone = month.getDisplayName(TextStyle.FULL_STANDALONE, locale);
+            monthNames[month.ordinal()] = standalone.equals(String.valueOf(month.getValue()))
+                    ? month.getDisplayName(TextStyle.FULL, locale) : standalone;
+            shortMonthNames[month.ordinal()] = shortMonths.format(LocalDate.of(2000, month, 1));
+        }
+        DateTimeFormatter marker = DateTimeFormatter.ofPattern("a", locale);
+        amPm[0] = marker.format(LocalTime.MIDNIGHT);
+        amPm[1] = marker.format(LocalTime.NOON);
+        dateTimeFormatter = DateTimeFormatter.ofPattern(pattern, locale);
+    }
+
+    public static DisplayLocale of(Locale locale) {
+        return LOCALES.computeIfAbsent(locale, key -> new DisplayLocale(key, localizedPattern(key)));
+    }
+
+    // the pattern of(locale) writes item date-times in
+    public static String localizedPattern(Locale locale) {
+        return DateTimeFormatterBuilder.getLocalizedDateTimePattern(FormatStyle.MEDIUM, FormatStyle.SHORT, IsoChronology.INSTANCE, locale);
+    }
+
+    // the locale ICalendarItem.DATE_FORMATTER was made with, which toString() uses
+    public static DisplayLocale getDefault() {
+        return DEFAULT;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public String monthName(Month month) {
+        return monthNames[month.ordinal()];
+    }
+
+    String shortMonthName(int month) {
+        return shortMonthNames[month - 1];
+    }
+
+    String amPm(int hour) {
+        return amPm[hour < 12 ? 0 : 1];
+    }
+
+    DateTimeFormatter dateTimeFormatter() {
+        return dateTimeFormatter;
+    }
+
+}
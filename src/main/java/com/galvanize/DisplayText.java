@@ -0,0 +1,113 @@
+package com.galvanize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Writes display text into a caller's buffer without building intermediate strings. Date-times
+// come out as ICalendarItem.DATE_FORMATTER would print them, worked out from the epoch second
+// with month and am/pm names from the default DisplayLocale's tables. Other locales, years
+// before 1, and the default locale once DATE_FORMATTER has been replaced go through a formatter.
+public final class DisplayText {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private DisplayText() {
+    }
+
+    // what toString() would give, without the string when the item can render itself
+    public static void append(StringBuilder out, Object item) {
+        append(out, item, DisplayLocale.getDefault());
+    }
+
+    public static void append(StringBuilder out, Object item, DisplayLocale locale) {
+        if (item instanceof Renderable) {
+            ((Renderable) item).appendTo(out, locale);
+        } else {
+            out.append(item);
+        }
+    }
+
+    public static String toString(Renderable item) {
+        StringBuilder out = new StringBuilder(96);
+        item.appendTo(out);
+        return out.toString();
+    }
+
+    public static void appendDateTime(StringBuilder out, LocalDateTime dateTime) {
+        appendDateTime(out, dateTime, DisplayLocale.getDefault());
+    }
+
+    public static void appendDateTime(StringBuilder out, LocalDateTime dateTime, DisplayLocale locale) {
+        if (locale != DisplayLocale.getDefault()) {
+            locale.dateTimeFormatter().formatTo(dateTime, out);
+            return;
+        }
+        appendDateTime(out, dateTime.toEpochSecond(ZoneOffset.UTC), dateTime, Duration.ZERO);
+    }
+
+    // dateTime plus duration, without making the LocalDateTime in between
+    public static void appendDateTime(StringBuilder out, LocalDateTime dateTime, Duration duration) {
+        appendDateTime(out, dateTime, duration, DisplayLocale.getDefault());
+    }
+
+    public static void appendDateTime(StringBuilder out, LocalDateTime dateTime, Duration duration, DisplayLocale locale) {
+        if (locale != DisplayLocale.getDefault()) {
+            locale.dateTimeFormatter().formatTo(dateTime.plus(duration), out);
+            return;
+        }
+        long nanos = (long) dateTime.getNano() + duration.getNano();
+        appendDateTime(out, dateTime.toEpochSecond(ZoneOffset.UTC) + duration.getSeconds() + nanos / 1_000_000_000, dateTime, duration);
+    }
+
+    // LocalDate.toString()
+    public static void appendDate(StringBuilder out, LocalDate date) {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            out.append(date);
+            return;
+        }
+        out.append(year).append('-');
+        appendTwoDigits(out, date.getMonthValue());
+        out.append('-');
+        appendTwoDigits(out, date.getDayOfMonth());
+    }
+
+    // the formatters get dateTime plus duration itself, so patterns finer than a second keep their digits
+    private static void appendDateTime(StringBuilder out, long epochSecond, LocalDateTime dateTime, Duration duration) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // civil date from a day count, after Howard Hinnant's days_from_civil inverse
+        long shifted = epochDay + 719_468;
+        long era = Math.floorDiv(shifted, 146_097);
+        long dayOfEra = shifted - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (ICalendarItem.DATE_FORMATTER != ICalendarItem.DEFAULT_DATE_FORMATTER || year < 1) {
+            ICalendarItem.DATE_FORMATTER.formatTo(duration.isZero() ? dateTime : dateTime.plus(duration), out);
+            return;
+        }
+
+        DisplayLocale locale = DisplayLocale.getDefault();
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        out.append(locale.shortMonthName(month)).append(' ')
+                .append(day).append(", ")
+                .append(year).append(' ')
+                .append(hour % 12 == 0 ? 12 : hour % 12).append(':');
+        appendTwoDigits(out, minute);
+        out.append(' ').append(locale.amPm(hour));
+    }
+
+    private static void appendTwoDigits(StringBuilder out, int value) {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+}
@@ -3,10 +3,10 @@ package com.galvanize;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
-public class Event extends ICalendarItem implements Scheduable {
+public class Event extends ICalendarItem implements Spannable, Renderable {
 
     private final String title;
-    private final LocalDateTime startsAt;
+    private LocalDateTime startsAt;
     private final Duration duration;
 
     public Event(String title, LocalDateTime startsAt, Duration duration) {
@@ -27,6 +27,11 @@ public class Event extends ICalendarItem implements Scheduable {
         return startsAt;
     }
 
+    // only Calendar.reschedule calls this, with the event out of its store
+    void reschedule(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+
     public Duration getDuration() {
         return duration;
     }
@@ -49,13 +54,17 @@ public class Event extends ICalendarItem implements Scheduable {
                 .toString();
     }
 
+    @Override
+    public void appendTo(StringBuilder out, DisplayLocale locale) {
+        out.append(getTitle()).append(" at ");
+        DisplayText.appendDateTime(out, startsAt, locale);
+        out.append(" (ends at ");
+        DisplayText.appendDateTime(out, startsAt, duration, locale);
+        out.append(')');
+    }
+
     @Override
     public String toString() {
-        return String.format(
-                "%s at %s (ends at %s)",
-                getTitle(),
-                getStartTime().format(DATE_FORMATTER),
-                getEndsAt().format(DATE_FORMATTER)
-        );
+        return DisplayText.toString(this);
     }
 }
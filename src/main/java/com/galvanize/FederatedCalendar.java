@@ -0,0 +1,275 @@
+package com.galvanize;
+
+import com.galvanize.storage.ScheduleStore;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+// A read-only calendar showing everything in a set of other calendars, for team views. Nothing
+// is copied: each read asks every source for its part, already in start time order, and k-way
+// merges the answers, so a range query costs the sources' seeks plus O(log k) per item handed
+// out. Sources that change show up in the next read. Items starting together keep the order
+// of the calendars they came from.
+public class FederatedCalendar extends Calendar {
+
+    private final List<Calendar> sources;
+    private final List<Relay> relays = new CopyOnWriteArrayList<>();
+
+    public FederatedCalendar(Calendar... sources) {
+        this(Arrays.asList(sources));
+    }
+
+    public FederatedCalendar(List<Calendar> sources) {
+        this(new MergedStore(new ArrayList<>(sources)));
+    }
+
+    // sources' recurring series are expanded by the sources themselves, so this calendar has none
+    private FederatedCalendar(MergedStore store) {
+        super(store, Collections.emptyList());
+        this.sources = store.sources;
+    }
+
+    @Override
+    public Calendar snapshot() {
+        List<Calendar> snapshots = new ArrayList<>(sources.size());
+        for (Calendar source : sources) snapshots.add(source.snapshot());
+        return new FederatedCalendar(snapshots);
+    }
+
+    // The sources' changes are this calendar's changes. Each source gets a relay that holds this
+    // calendar only weakly, so listening never keeps a dropped view alive: once it has been
+    // collected, its relays take themselves off the sources at their next change.
+    @Override
+    public void addListener(CalendarListener listener) {
+        for (Calendar source : sources) {
+            Relay relay = new Relay(this, source, listener);
+            relays.add(relay);
+            source.addListener(relay);
+        }
+    }
+
+    @Override
+    public void removeListener(CalendarListener listener) {
+        for (Relay relay : relays) {
+            if (relay.listener != listener) continue;
+            relays.remove(relay);
+            relay.source.removeListener(relay);
+        }
+    }
+
+    // the sources' own series can run past every stored item, so each source knows its own horizon
+    @Override
+    LocalDateTime horizon() {
+        LocalDateTime horizon = null;
+        for (Calendar source : sources) {
+            LocalDateTime candidate = source.horizon();
+            if (candidate != null && (horizon == null || candidate.isAfter(horizon))) horizon = candidate;
+        }
+        return horizon;
+    }
+
+    @Override
+    public List<Spannable> overlapping(LocalDateTime from, LocalDateTime to) {
+        return merge(source -> source.overlapping(from, to));
+    }
+
+    @Override
+    public List<Spannable> occurringAt(LocalDateTime dateTime) {
+        return merge(source -> source.occurringAt(dateTime));
+    }
+
+    @Override
+    public List<Spannable> within(LocalDateTime from, LocalDateTime to) {
+        return merge(source -> source.within(from, to));
+    }
+
+    @Override
+    public List<Spannable> containing(LocalDateTime from, LocalDateTime to) {
+        return merge(source -> source.containing(from, to));
+    }
+
+    @Override
+    public Iterator<Spannable> spans(LocalDateTime from, LocalDateTime to) {
+        List<Iterator<Spannable>> spans = new ArrayList<>(sources.size());
+        for (Calendar source : sources) spans.add(source.spans(from, to));
+        return new MergingIterator<>(spans, Comparator.comparing(Spannable::getStartTime));
+    }
+
+    private List<Spannable> merge(Function<Calendar, List<Spannable>> query) {
+        List<Iterator<Spannable>> found = new ArrayList<>(sources.size());
+        int size = 0;
+        for (Calendar source : sources) {
+            List<Spannable> result = query.apply(source);
+            size += result.size();
+            found.add(result.iterator());
+        }
+        List<Spannable> merged = new ArrayList<>(size);
+        new MergingIterator<>(found, Comparator.comparing(Spannable::getStartTime)).forEachRemaining(merged::add);
+        return merged;
+    }
+
+    private static final class Relay implements CalendarListener {
+
+        private final WeakReference<FederatedCalendar> view;
+        private final Calendar source;
+        private final CalendarListener listener;
+
+        private Relay(FederatedCalendar view, Calendar source, CalendarListener listener) {
+            this.view = new WeakReference<>(view);
+            this.source = source;
+            this.listener = listener;
+        }
+
+        @Override
+        public void added(Scheduable item) {
+            if (viewAlive()) listener.added(item);
+        }
+
+        @Override
+        public void removed(Scheduable item) {
+            if (viewAlive()) listener.removed(item);
+        }
+
+        @Override
+        public void rescheduled(Scheduable item, LocalDateTime previousStart) {
+            if (viewAlive()) listener.rescheduled(item, previousStart);
+        }
+
+        @Override
+        public void changed(Scheduable item) {
+            if (viewAlive()) listener.changed(item);
+        }
+
+        private boolean viewAlive() {
+            if (view.get() != null) return true;
+            source.removeListener(this);
+            return false;
+        }
+    }
+
+    // the store behind the calendar: every read goes straight through to the source calendars
+    private static final class MergedStore implements ScheduleStore {
+
+        private final List<Calendar> sources;
+
+        private MergedStore(List<Calendar> sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public void add(Scheduable item) {
+            throw new UnsupportedOperationException("This schedule is read-only");
+        }
+
+        @Override
+        public void addAll(Collection<? extends Scheduable> items) {
+            throw new UnsupportedOperationException("This schedule is read-only");
+        }
+
+        @Override
+        public boolean remove(Scheduable item) {
+            throw new UnsupportedOperationException("This schedule is read-only");
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Calendar source : sources) size += source.size();
+            return size;
+        }
+
+        @Override
+        public List<Scheduable> items() {
+            List<Iterator<Scheduable>> items = new ArrayList<>(sources.size());
+            for (Calendar source : sources) items.add(source.items().iterator());
+            List<Scheduable> merged = new ArrayList<>();
+            new MergingIterator<>(items, Comparator.comparing(Scheduable::getStartTime)).forEachRemaining(merged::add);
+            return merged;
+        }
+
+        @Override
+        public List<LocalDate> dates() {
+            List<Iterator<LocalDate>> dates = new ArrayList<>(sources.size());
+            for (Calendar source : sources) dates.add(source.dates().iterator());
+            List<LocalDate> merged = new ArrayList<>();
+            for (Iterator<LocalDate> each = new MergingIterator<>(dates, Comparator.naturalOrder()); each.hasNext(); ) {
+                LocalDate date = each.next();
+                if (merged.isEmpty() || !merged.get(merged.size() - 1).equals(date)) merged.add(date);
+            }
+            return merged;
+        }
+
+        @Override
+        public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+            List<Collection<Scheduable>> ranges = new ArrayList<>(sources.size());
+            for (Calendar source : sources) ranges.add(source.between(from, to));
+            return new AbstractCollection<Scheduable>() {
+                @Override
+                public Iterator<Scheduable> iterator() {
+                    List<Iterator<Scheduable>> iterators = new ArrayList<>(ranges.size());
+                    for (Collection<Scheduable> range : ranges) iterators.add(range.iterator());
+                    return new MergingIterator<>(iterators, Comparator.comparing(Scheduable::getStartTime));
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Collection<Scheduable> range : ranges) size += range.size();
+                    return size;
+                }
+            };
+        }
+
+        @Override
+        public LocalDateTime getFirstDateTime() {
+            LocalDateTime first = null;
+            for (Calendar source : sources) {
+                LocalDateTime candidate = source.getFirstDateTime();
+                if (candidate != null && (first == null || candidate.isBefore(first))) first = candidate;
+            }
+            return first;
+        }
+
+        @Override
+        public LocalDateTime getLastDateTime() {
+            LocalDateTime last = null;
+            for (Calendar source : sources) {
+                LocalDateTime candidate = source.getLastDateTime();
+                if (candidate != null && (last == null || candidate.isAfter(last))) last = candidate;
+            }
+            return last;
+        }
+
+        @Override
+        public ScheduleStore snapshot() {
+            List<Calendar> snapshots = new ArrayList<>(sources.size());
+            for (Calendar source : sources) snapshots.add(source.snapshot());
+            return new MergedStore(snapshots);
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return true;
+        }
+
+        @Override
+        public boolean hasUnpublishedWrites() {
+            for (Calendar source : sources) {
+                if (source.hasUnpublishedWrites()) return true;
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.galvanize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Busy blocks and free gaps across any number of calendars. Each calendar's spans are already
+// in start time order, so they are k-way merged and swept once: a block grows while the next
+// span starts before (or exactly when) it ends, and is handed out as soon as one doesn't.
+public class FreeBusy {
+
+    private final List<Calendar> calendars;
+
+    public FreeBusy(Calendar... calendars) {
+        this(Arrays.asList(calendars));
+    }
+
+    public FreeBusy(List<Calendar> calendars) {
+        this.calendars = new ArrayList<>(calendars);
+    }
+
+    public List<TimeSlot> busy(LocalDateTime from, LocalDateTime to) {
+        List<TimeSlot> busy = new ArrayList<>();
+        busyBlocks(from, to).forEachRemaining(busy::add);
+        return busy;
+    }
+
+    public List<TimeSlot> free(LocalDateTime from, LocalDateTime to) {
+        List<TimeSlot> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Iterator<TimeSlot> blocks = busyBlocks(from, to); blocks.hasNext(); ) {
+            TimeSlot block = blocks.next();
+            if (block.getStartTime().isAfter(freeFrom)) free.add(new TimeSlot(freeFrom, block.getStartTime()));
+            freeFrom = block.getEndsAt();
+        }
+        if (freeFrom.isBefore(to)) free.add(new TimeSlot(freeFrom, to));
+        return free;
+    }
+
+    // The first `count` slots of `duration` in [from, until) when every calendar is free, packed
+    // back to back from the start of each gap. Busy blocks are pulled one at a time and the
+    // search stops at the gap that completes the answer, so nothing past it is read.
+    public List<TimeSlot> firstFree(int count, Duration duration, LocalDateTime from, LocalDateTime until) {
+        if (duration.isNegative() || duration.isZero()) throw new IllegalArgumentException("The duration must be positive");
+        List<TimeSlot> slots = new ArrayList<>(count);
+        Iterator<TimeSlot> blocks = busyBlocks(from, until);
+        LocalDateTime freeFrom = from;
+        while (slots.size() < count) {
+            TimeSlot block = blocks.hasNext() ? blocks.next() : null;
+            LocalDateTime freeUntil = block == null ? until : block.getStartTime();
+            for (LocalDateTime start = freeFrom; slots.size() < count && !start.plus(duration).isAfter(freeUntil); start = start.plus(duration)) {
+                slots.add(new TimeSlot(start, start.plus(duration)));
+            }
+            if (block == null) break;
+            freeFrom = block.getEndsAt();
+        }
+        return slots;
+    }
+
+    // merged busy blocks clipped to [from, to), produced lazily in order
+    public Iterator<TimeSlot> busyBlocks(LocalDateTime from, LocalDateTime to) {
+        List<Iterator<Spannable>> sources = new ArrayList<>(calendars.size());
+        for (Calendar calendar : calendars) sources.add(calendar.spans(from, to));
+        Iterator<Spannable> spans = new MergingIterator<>(sources, Comparator.comparing(Spannable::getStartTime));
+
+        return new Iterator<TimeSlot>() {
+            private Spannable pending = advance();
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public TimeSlot next() {
+                if (pending == null) throw new NoSuchElementException();
+                LocalDateTime start = max(pending.getStartTime(), from);
+                LocalDateTime end = pending.getEndsAt();
+                pending = advance();
+                while (pending != null && !pending.getStartTime().isAfter(end)) {
+                    if (pending.getEndsAt().isAfter(end)) end = pending.getEndsAt();
+                    pending = advance();
+                }
+                return new TimeSlot(start, min(end, to));
+            }
+
+            // empty spans don't make anyone busy
+            private Spannable advance() {
+                while (spans.hasNext()) {
+                    Spannable span = spans.next();
+                    if (span.getEndsAt().isAfter(span.getStartTime())) return span;
+                }
+                return null;
+            }
+        };
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+}
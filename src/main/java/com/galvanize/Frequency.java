@@ -0,0 +1,5 @@
+package com.galvanize;
+
+public enum Frequency {
+    DAILY, WEEKLY, MONTHLY
+}
@@ -5,7 +5,8 @@ import java.util.UUID;
 
 public abstract class ICalendarItem implements Displayable {
 
-    public static DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d, y h:mm a");
+    static final DateTimeFormatter DEFAULT_DATE_FORMATTER = DateTimeFormatter.ofPattern(DisplayLocale.DATE_TIME_PATTERN);
+    public static DateTimeFormatter DATE_FORMATTER = DEFAULT_DATE_FORMATTER;
     private String uuid;
 
     public ICalendarItem() {
@@ -17,6 +18,10 @@ public abstract class ICalendarItem implements Displayable {
         return uuid;
     }
 
+    void restoreUuid(String uuid) {
+        this.uuid = uuid;
+    }
+
     public abstract String iCalendar();
 
 }
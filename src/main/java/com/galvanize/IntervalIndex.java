@@ -0,0 +1,187 @@
+package com.galvanize;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+// AVL tree of [start, end) intervals ordered by start time, where every node also
+// records the latest end time in its subtree so whole branches can be skipped
+class IntervalIndex {
+
+    private Node root;
+    private long sequence;
+    private int size;
+
+    public void add(Spannable item) {
+        root = insert(root, new Node(item, sequence++));
+        size++;
+    }
+
+    public boolean remove(Spannable item) {
+        Node node = find(root, item);
+        if (node == null) return false;
+        root = delete(root, node);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // start < to && end > from
+    public List<Spannable> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Spannable> result = new ArrayList<>();
+        collect(root, from, to, false, node -> true, result);
+        return result;
+    }
+
+    // start <= at && end > at
+    public List<Spannable> at(LocalDateTime at) {
+        List<Spannable> result = new ArrayList<>();
+        collect(root, at, at, true, node -> true, result);
+        return result;
+    }
+
+    // start >= from && end <= to
+    public List<Spannable> within(LocalDateTime from, LocalDateTime to) {
+        List<Spannable> result = new ArrayList<>();
+        collectStartingIn(root, from, to, result);
+        return result;
+    }
+
+    // start <= from && end >= to
+    public List<Spannable> containing(LocalDateTime from, LocalDateTime to) {
+        List<Spannable> result = new ArrayList<>();
+        collect(root, from, from, true, node -> !node.end.isBefore(to), result);
+        return result;
+    }
+
+    // in-order walk of the nodes ending after `endsAfter` and starting before (or at) `startsBefore`
+    private void collect(Node node, LocalDateTime endsAfter, LocalDateTime startsBefore, boolean inclusive,
+                         Predicate<Node> filter, List<Spannable> result) {
+        if (node == null || !node.maxEnd.isAfter(endsAfter)) return;
+        collect(node.left, endsAfter, startsBefore, inclusive, filter, result);
+        if (inclusive ? node.start.isAfter(startsBefore) : !node.start.isBefore(startsBefore)) return;
+        if (node.end.isAfter(endsAfter) && filter.test(node)) result.add(node.item);
+        collect(node.right, endsAfter, startsBefore, inclusive, filter, result);
+    }
+
+    private void collectStartingIn(Node node, LocalDateTime from, LocalDateTime to, List<Spannable> result) {
+        if (node == null) return;
+        if (!node.start.isBefore(from)) collectStartingIn(node.left, from, to, result);
+        if (!node.start.isBefore(from) && !node.end.isAfter(to) && node.start.isBefore(to)) result.add(node.item);
+        if (node.start.isBefore(to)) collectStartingIn(node.right, from, to, result);
+    }
+
+    private Node find(Node node, Spannable item) {
+        if (node == null) return null;
+        int comparison = item.getStartTime().compareTo(node.start);
+        if (comparison < 0) return find(node.left, item);
+        if (comparison > 0) return find(node.right, item);
+        if (node.item == item) return node;
+        Node found = find(node.left, item);
+        return found != null ? found : find(node.right, item);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) return added;
+        if (added.compareTo(node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, Node removed) {
+        if (node == null) return null;
+        int comparison = removed.compareTo(node);
+        if (comparison < 0) {
+            node.left = delete(node.left, removed);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, removed);
+        } else {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            Node successor = node.right;
+            while (successor.left != null) successor = successor.left;
+            successor.right = delete(node.right, successor);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        node.update();
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node implements Comparable<Node> {
+
+        private final Spannable item;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long sequence;
+
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private LocalDateTime maxEnd;
+
+        private Node(Spannable item, long sequence) {
+            this.item = item;
+            this.start = item.getStartTime();
+            this.end = item.getEndsAt();
+            this.sequence = sequence;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            height = Math.max(height(left), height(right)) + 1;
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) maxEnd = left.maxEnd;
+            if (right != null && right.maxEnd.isAfter(maxEnd)) maxEnd = right.maxEnd;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int result = start.compareTo(other.start);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.galvanize;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Binary records for calendar items, used by the on-disk formats in com.galvanize.storage.
+// A record is a type byte, the UID, then the item's own fields; date times are stored as
+// epoch seconds (UTC) plus nanos and strings as a byte length (-1 for null) plus UTF-8.
+public final class ItemCodec {
+
+    private static final byte EVENT = 1;
+    private static final byte REMINDER = 2;
+    private static final byte TODO = 3;
+    private static final byte RECURRING_EVENT = 4;
+
+    private ItemCodec() {
+    }
+
+    public static boolean canWrite(Object item) {
+        return item instanceof Event || item instanceof Reminder || item instanceof Todo || item instanceof RecurringEvent;
+    }
+
+    public static void write(DataOutput out, Object item) throws IOException {
+        if (item instanceof Event) {
+            Event event = (Event) item;
+            out.writeByte(EVENT);
+            writeString(out, event.getUuid());
+            writeString(out, event.getTitle());
+            writeDateTime(out, event.getStartTime());
+            writeDuration(out, event.getDuration());
+        } else if (item instanceof Reminder) {
+            Reminder reminder = (Reminder) item;
+            out.writeByte(REMINDER);
+            writeString(out, reminder.getUuid());
+            writeString(out, reminder.getDescription());
+            writeDateTime(out, reminder.getStartTime());
+            out.writeBoolean(reminder.isComplete());
+        } else if (item instanceof Todo) {
+            Todo todo = (Todo) item;
+            out.writeByte(TODO);
+            writeString(out, todo.getUuid());
+            writeString(out, todo.getText());
+            writeString(out, todo.getDescription());
+            writeNullableDateTime(out, todo.isComplete() ? todo.getCompletedAt() : null);
+            out.writeBoolean(todo.getOwner() != null);
+            if (todo.getOwner() != null) {
+                writeString(out, todo.getOwner().getFirstName());
+                writeString(out, todo.getOwner().getLastName());
+                writeString(out, todo.getOwner().getEmail());
+                writeString(out, todo.getOwner().getJobTitle());
+            }
+        } else if (item instanceof RecurringEvent) {
+            RecurringEvent series = (RecurringEvent) item;
+            RecurrenceRule rule = series.getRule();
+            out.writeByte(RECURRING_EVENT);
+            writeString(out, series.getUuid());
+            writeString(out, series.getTitle());
+            writeDateTime(out, series.getStartTime());
+            writeDuration(out, series.getDuration());
+            out.writeByte(rule.getFrequency().ordinal());
+            out.writeInt(rule.getInterval());
+            out.writeInt(rule.getCount() == null ? -1 : rule.getCount());
+            writeNullableDateTime(out, rule.getUntil());
+            out.writeInt(series.getExceptions().size());
+            for (LocalDateTime exception : series.getExceptions()) {
+                writeDateTime(out, exception);
+            }
+        } else {
+            throw new IllegalArgumentException("Can't store " + (item == null ? "null" : item.getClass().getName()));
+        }
+    }
+
+    // reads the record at the buffer's position and leaves the position just past it
+    public static ICalendarItem read(ByteBuffer buffer) {
+        byte type = buffer.get();
+        String uuid = readString(buffer);
+        ICalendarItem item;
+        switch (type) {
+            case EVENT:
+                item = new Event(readString(buffer), readDateTime(buffer), readDuration(buffer));
+                break;
+            case REMINDER:
+                Reminder reminder = new Reminder(readString(buffer), readDateTime(buffer));
+                if (buffer.get() != 0) reminder.markComplete();
+                item = reminder;
+                break;
+            case TODO:
+                String text = readString(buffer);
+                String description = readString(buffer);
+                LocalDateTime completedAt = readNullableDateTime(buffer);
+                Owner owner = buffer.get() != 0
+                        ? new Owner(readString(buffer), readString(buffer), readString(buffer), readString(buffer))
+                        : null;
+                Todo todo = new Todo(text, owner);
+                todo.setDescription(description);
+                todo.restoreCompletion(completedAt);
+                item = todo;
+                break;
+            case RECURRING_EVENT:
+                String title = readString(buffer);
+                LocalDateTime startsAt = readDateTime(buffer);
+                Duration duration = readDuration(buffer);
+                RecurrenceRule rule = new RecurrenceRule(Frequency.values()[buffer.get()], buffer.getInt());
+                int count = buffer.getInt();
+                LocalDateTime until = readNullableDateTime(buffer);
+                if (count >= 0) rule = rule.times(count);
+                if (until != null) rule = rule.until(until);
+                RecurringEvent series = new RecurringEvent(title, startsAt, duration, rule);
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    series.except(readDateTime(buffer));
+                }
+                item = series;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown record type " + type);
+        }
+        item.restoreUuid(uuid);
+        return item;
+    }
+
+    public static String uid(Object item) {
+        return ((ICalendarItem) item).getUuid();
+    }
+
+    // just the completion state, which is all markComplete and markIncomplete change
+    public static void writeCompletion(DataOutput out, Completable item) throws IOException {
+        out.writeBoolean(item.isComplete());
+        writeNullableDateTime(out, item instanceof Todo && item.isComplete() ? ((Todo) item).getCompletedAt() : null);
+    }
+
+    // skips over the state when there is no item to restore it to
+    public static void readCompletion(ByteBuffer buffer, Completable item) {
+        boolean complete = buffer.get() != 0;
+        LocalDateTime completedAt = readNullableDateTime(buffer);
+        if (item instanceof Todo) {
+            ((Todo) item).restoreCompletion(completedAt);
+        } else if (item != null && complete) {
+            item.markComplete();
+        } else if (item != null) {
+            item.markIncomplete();
+        }
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeDateTime(DataOutput out, LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    public static LocalDateTime readDateTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeNullableDateTime(DataOutput out, LocalDateTime dateTime) throws IOException {
+        out.writeBoolean(dateTime != null);
+        if (dateTime != null) writeDateTime(out, dateTime);
+    }
+
+    private static LocalDateTime readNullableDateTime(ByteBuffer buffer) {
+        return buffer.get() != 0 ? readDateTime(buffer) : null;
+    }
+
+    private static void writeDuration(DataOutput out, Duration duration) throws IOException {
+        out.writeLong(duration.getSeconds());
+        out.writeInt(duration.getNano());
+    }
+
+    private static Duration readDuration(ByteBuffer buffer) {
+        return Duration.ofSeconds(buffer.getLong(), buffer.getInt());
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.galvanize;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// k-way merge of iterators that are each already sorted, pulling one element at a time
+public class MergingIterator<T> implements Iterator<T> {
+
+    private final PriorityQueue<Head<T>> heads;
+
+    public MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator) {
+        heads = new PriorityQueue<>(Math.max(sources.size(), 1), (a, b) -> {
+            int result = comparator.compare(a.value, b.value);
+            return result != 0 ? result : Integer.compare(a.source, b.source);
+        });
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<? extends T> source = sources.get(i);
+            if (source.hasNext()) heads.add(new Head<>(source.next(), source, i));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) throw new NoSuchElementException();
+        T value = head.value;
+        if (head.iterator.hasNext()) {
+            head.value = head.iterator.next();
+            heads.add(head);
+        }
+        return value;
+    }
+
+    private static final class Head<T> {
+
+        private T value;
+        private final Iterator<? extends T> iterator;
+        private final int source;
+
+        private Head(T value, Iterator<? extends T> iterator, int source) {
+            this.value = value;
+            this.iterator = iterator;
+            this.source = source;
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.galvanize;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public class RecurrenceRule implements Renderable {
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDateTime until;
+
+    public RecurrenceRule(Frequency frequency, int interval) {
+        this(frequency, interval, null, null);
+    }
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDateTime until) {
+        if (interval < 1) throw new IllegalArgumentException("The interval must be at least 1");
+        if (count != null && count < 1) throw new IllegalArgumentException("The count must be at least 1");
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    public RecurrenceRule times(int count) {
+        return new RecurrenceRule(frequency, interval, count, null);
+    }
+
+    public RecurrenceRule until(LocalDateTime until) {
+        return new RecurrenceRule(frequency, interval, null, until);
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public boolean isBounded() {
+        return count != null || until != null;
+    }
+
+    // the index-th candidate start, or null when that month has no such day (RFC 5545 skips those)
+    LocalDateTime candidate(LocalDateTime startsAt, long index) {
+        switch (frequency) {
+            case DAILY:
+                return startsAt.plusDays(index * interval);
+            case WEEKLY:
+                return startsAt.plusWeeks(index * interval);
+            default:
+                LocalDateTime candidate = startsAt.plusMonths(index * interval);
+                return candidate.getDayOfMonth() == startsAt.getDayOfMonth() ? candidate : null;
+        }
+    }
+
+    // index of the first candidate starting at or after `from`
+    long firstIndexFrom(LocalDateTime startsAt, LocalDateTime from) {
+        if (!from.isAfter(startsAt)) return 0;
+        long index;
+        switch (frequency) {
+            case DAILY:
+                index = ChronoUnit.DAYS.between(startsAt, from) / interval;
+                break;
+            case WEEKLY:
+                index = ChronoUnit.WEEKS.between(startsAt, from) / interval;
+                break;
+            default:
+                index = ChronoUnit.MONTHS.between(startsAt, from) / interval;
+        }
+        while (nominal(startsAt, index).isBefore(from)) index++;
+        return index;
+    }
+
+    // how many real occurrences the candidates before `index` produce, for COUNT
+    long occurrencesBefore(LocalDateTime startsAt, long index) {
+        if (frequency != Frequency.MONTHLY || startsAt.getDayOfMonth() <= 28) return index;
+        long occurrences = 0;
+        for (long i = 0; i < index; i++) {
+            if (candidate(startsAt, i) != null) occurrences++;
+        }
+        return occurrences;
+    }
+
+    // index of the last candidate a bounded rule turns into an occurrence, or -1 when there is none
+    long lastIndex(LocalDateTime startsAt) {
+        if (count != null) {
+            if (frequency != Frequency.MONTHLY || startsAt.getDayOfMonth() <= 28) return count - 1L;
+            long index = -1;
+            for (long occurrences = 0; occurrences < count; ) {
+                if (candidate(startsAt, ++index) != null) occurrences++;
+            }
+            return index;
+        }
+        if (until.isBefore(startsAt)) return -1;
+        long index = firstIndexFrom(startsAt, until.plusNanos(1)) - 1;
+        while (index >= 0 && candidate(startsAt, index) == null) index--;
+        return index;
+    }
+
+    String iCalendar() {
+        StringBuilder builder = new StringBuilder()
+                .append("FREQ=").append(frequency)
+                .append(";INTERVAL=").append(interval);
+        if (count != null) builder.append(";COUNT=").append(count);
+        if (until != null) builder.append(";UNTIL=").append(until);
+        return builder.toString();
+    }
+
+    private LocalDateTime nominal(LocalDateTime startsAt, long index) {
+        return frequency == Frequency.MONTHLY ? startsAt.plusMonths(index * interval) : candidate(startsAt, index);
+    }
+
+    @Override
+    public void appendTo(StringBuilder out, DisplayLocale locale) {
+        String unit = frequency == Frequency.DAILY ? "day" : frequency == Frequency.WEEKLY ? "week" : "month";
+        out.append("every ");
+        if (interval == 1) {
+            out.append(unit);
+        } else {
+            out.append(interval).append(' ').append(unit).append('s');
+        }
+        if (count != null) out.append(", ").append(count.intValue()).append(" times");
+        if (until != null) {
+            out.append(", until ");
+            DisplayText.appendDateTime(out, until, locale);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return DisplayText.toString(this);
+    }
+
+}
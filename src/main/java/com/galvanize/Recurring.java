@@ -0,0 +1,17 @@
+package com.galvanize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+public interface Recurring extends Scheduable {
+
+    // occurrences starting in [from, to), in start time order, generated as they are read
+    Iterator<Spannable> occurrences(LocalDateTime from, LocalDateTime to);
+
+    Duration getDuration();
+
+    // start of the final occurrence, or null when the series never ends
+    LocalDateTime getLastStartTime();
+
+}
@@ -0,0 +1,194 @@
+package com.galvanize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.util.stream.Collectors.joining;
+
+public class RecurringEvent extends ICalendarItem implements Recurring, Renderable {
+
+    private final String title;
+    private final LocalDateTime startsAt;
+    private final Duration duration;
+    private final RecurrenceRule rule;
+    private final Set<LocalDateTime> exceptions = new TreeSet<>();
+
+    // where a bounded rule ends, worked out once since neither the rule nor the start can change
+    private final long lastIndex;
+    private final LocalDateTime lastCandidate;
+
+    public RecurringEvent(String title, LocalDateTime startsAt, Duration duration, RecurrenceRule rule) {
+        this.title = title;
+        this.startsAt = startsAt;
+        this.duration = duration;
+        this.rule = rule;
+        this.lastIndex = rule.isBounded() ? rule.lastIndex(startsAt) : -1;
+        this.lastCandidate = lastIndex < 0 ? null : rule.candidate(startsAt, lastIndex);
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getTextToDisplay() {
+        return getTitle();
+    }
+
+    public LocalDateTime getStartTime() {
+        return startsAt;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    // skips the occurrence that would have started at this time; once the series is in a
+    // calendar, go through Calendar.except so the calendar's listeners hear about it
+    public void except(LocalDateTime occurrenceStartsAt) {
+        exceptions.add(occurrenceStartsAt);
+    }
+
+    public Set<LocalDateTime> getExceptions() {
+        return new TreeSet<>(exceptions);
+    }
+
+    @Override
+    public Iterator<Spannable> occurrences(LocalDateTime from, LocalDateTime to) {
+        return new Iterator<Spannable>() {
+            private long index = rule.firstIndexFrom(startsAt, from);
+            private long generated = rule.occurrencesBefore(startsAt, index);
+            private Occurrence next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Spannable next() {
+                if (next == null) throw new NoSuchElementException();
+                Occurrence current = next;
+                next = advance();
+                return current;
+            }
+
+            private Occurrence advance() {
+                while (rule.getCount() == null || generated < rule.getCount()) {
+                    LocalDateTime candidate = rule.candidate(startsAt, index++);
+                    if (candidate == null) continue;
+                    generated++;
+                    if (rule.getUntil() != null && candidate.isAfter(rule.getUntil())) return null;
+                    if (!candidate.isBefore(to)) return null;
+                    if (!exceptions.contains(candidate)) return new Occurrence(candidate);
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public LocalDateTime getLastStartTime() {
+        if (lastCandidate == null || !exceptions.contains(lastCandidate)) return lastCandidate;
+        // the last occurrences were excepted, so step back to the latest one still standing
+        for (long index = lastIndex - 1; index >= 0; index--) {
+            LocalDateTime candidate = rule.candidate(startsAt, index);
+            if (candidate != null && !exceptions.contains(candidate)) return candidate;
+        }
+        return null;
+    }
+
+    @Override
+    public String iCalendar() {
+        if (title == null) throw new IllegalArgumentException("You must specify a title for this event");
+
+        StringBuilder builder = new StringBuilder()
+                .append("BEGIN:VEVENT\n")
+                .append(String.format("DTSTART:%s\n", getStartTime()))
+                .append(String.format("DTEND:%s\n", getStartTime().plus(getDuration())))
+                .append(String.format("RRULE:%s\n", rule.iCalendar()));
+        if (!exceptions.isEmpty()) {
+            builder.append(String.format("EXDATE:%s\n", exceptions.stream().map(Object::toString).collect(joining(","))));
+        }
+        return builder
+                .append(String.format("UID:%s@example.com\n", getUuid()))
+                .append(String.format("DESCRIPTION:%s\n", getTextToDisplay()))
+                .append("END:VEVENT\n")
+                .toString();
+    }
+
+    @Override
+    public void appendTo(StringBuilder out, DisplayLocale locale) {
+        out.append(getTitle()).append(" at ");
+        DisplayText.appendDateTime(out, startsAt, locale);
+        out.append(" (ends at ");
+        DisplayText.appendDateTime(out, startsAt, duration, locale);
+        out.append("), repeating ");
+        rule.appendTo(out, locale);
+    }
+
+    @Override
+    public String toString() {
+        return DisplayText.toString(this);
+    }
+
+    public class Occurrence implements Spannable, Renderable {
+
+        private final LocalDateTime startsAt;
+
+        private Occurrence(LocalDateTime startsAt) {
+            this.startsAt = startsAt;
+        }
+
+        public RecurringEvent getSeries() {
+            return RecurringEvent.this;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public LocalDateTime getStartTime() {
+            return startsAt;
+        }
+
+        public LocalDateTime getEndsAt() {
+            return startsAt.plus(duration);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Occurrence)) return false;
+            Occurrence occurrence = (Occurrence) other;
+            return occurrence.getSeries() == getSeries() && occurrence.startsAt.equals(startsAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(getSeries()), startsAt);
+        }
+
+        @Override
+        public void appendTo(StringBuilder out, DisplayLocale locale) {
+            out.append(title).append(" at ");
+            DisplayText.appendDateTime(out, startsAt, locale);
+            out.append(" (ends at ");
+            DisplayText.appendDateTime(out, startsAt, duration, locale);
+            out.append(')');
+        }
+
+        @Override
+        public String toString() {
+            return DisplayText.toString(this);
+        }
+    }
+
+}
@@ -2,10 +2,10 @@ package com.galvanize;
 
 import java.time.LocalDateTime;
 
-public class Reminder extends ICalendarItem implements Scheduable, Completable {
+public class Reminder extends ICalendarItem implements Scheduable, Completable, Renderable {
 
     private final String description;
-    private final LocalDateTime remindsAt;
+    private LocalDateTime remindsAt;
     private boolean complete;
 
     public Reminder(String description, LocalDateTime remindsAt) {
@@ -26,6 +26,11 @@ public class Reminder extends ICalendarItem implements Scheduable, Completable {
         return remindsAt;
     }
 
+    // only Calendar.reschedule calls this, with the reminder out of its store
+    void reschedule(LocalDateTime remindsAt) {
+        this.remindsAt = remindsAt;
+    }
+
     @Override
     public boolean isComplete() {
         return complete;
@@ -55,13 +60,15 @@ public class Reminder extends ICalendarItem implements Scheduable, Completable {
                 .toString();
     }
 
+    @Override
+    public void appendTo(StringBuilder out, DisplayLocale locale) {
+        out.append(getDescription()).append(" at ");
+        DisplayText.appendDateTime(out, remindsAt, locale);
+        out.append(" (").append(isComplete() ? "complete" : "incomplete").append(')');
+    }
+
     @Override
     public String toString() {
-        return String.format(
-                "%s at %s (%s)",
-                getDescription(),
-                getStartTime().format(DATE_FORMATTER),
-                isComplete() ? "complete" : "incomplete"
-        );
+        return DisplayText.toString(this);
     }
 }
@@ -0,0 +1,13 @@
+package com.galvanize;
+
+// things that can write their toString() text straight into a caller's buffer
+public interface Renderable {
+
+    // the same text, with dates spelled the way `locale` spells them
+    void appendTo(StringBuilder out, DisplayLocale locale);
+
+    default void appendTo(StringBuilder out) {
+        appendTo(out, DisplayLocale.getDefault());
+    }
+
+}
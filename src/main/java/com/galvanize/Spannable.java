@@ -0,0 +1,7 @@
+package com.galvanize;
+
+import java.time.LocalDateTime;
+
+public interface Spannable extends Scheduable {
+    LocalDateTime getEndsAt();
+}
@@ -0,0 +1,50 @@
+package com.galvanize;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// a plain [start, end) stretch of time, such as a busy block or a free gap
+public final class TimeSlot implements Spannable, Renderable {
+
+    private final LocalDateTime startsAt;
+    private final LocalDateTime endsAt;
+
+    public TimeSlot(LocalDateTime startsAt, LocalDateTime endsAt) {
+        if (endsAt.isBefore(startsAt)) throw new IllegalArgumentException("A time slot can't end before it starts");
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startsAt;
+    }
+
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof TimeSlot)) return false;
+        TimeSlot slot = (TimeSlot) other;
+        return slot.startsAt.equals(startsAt) && slot.endsAt.equals(endsAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startsAt, endsAt);
+    }
+
+    @Override
+    public void appendTo(StringBuilder out, DisplayLocale locale) {
+        DisplayText.appendDateTime(out, startsAt, locale);
+        out.append(" to ");
+        DisplayText.appendDateTime(out, endsAt, locale);
+    }
+
+    @Override
+    public String toString() {
+        return DisplayText.toString(this);
+    }
+
+}
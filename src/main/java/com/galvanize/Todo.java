@@ -2,7 +2,7 @@ package com.galvanize;
 
 import java.time.LocalDateTime;
 
-public class Todo extends ICalendarItem implements Completable{
+public class Todo extends ICalendarItem implements Completable, Renderable {
 
     private final String text;
     private String description;
@@ -57,6 +57,11 @@ public class Todo extends ICalendarItem implements Completable{
         return completedAt;
     }
 
+    void restoreCompletion(LocalDateTime completedAt) {
+        this.status = completedAt == null ? TodoStatus.INCOMPLETE : TodoStatus.COMPLETE;
+        this.completedAt = completedAt;
+    }
+
     @Override
     public String iCalendar() {
         if (text == null) throw new IllegalArgumentException("You must specify the text");
@@ -70,17 +75,19 @@ public class Todo extends ICalendarItem implements Completable{
                 .toString();
     }
 
+    @Override
+    public void appendTo(StringBuilder out, DisplayLocale locale) {
+        out.append(getText())
+                .append(" <").append(owner.getFirstName())
+                .append(' ').append(owner.getLastName())
+                .append("> ").append(owner.getEmail())
+                .append(" (").append(owner.getJobTitle())
+                .append("): ").append(status == TodoStatus.INCOMPLETE ? "incomplete" : "complete");
+    }
+
     @Override
     public String toString() {
-        return String.format(
-                "%s <%s %s> %s (%s): %s",
-                getText(),
-                owner.getFirstName(),
-                owner.getLastName(),
-                owner.getEmail(),
-                owner.getJobTitle(),
-                status == TodoStatus.INCOMPLETE ? "incomplete" : "complete"
-        );
+        return DisplayText.toString(this);
     }
 
 }
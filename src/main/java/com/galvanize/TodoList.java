@@ -29,6 +29,14 @@ public class TodoList {
                 .collect(toList());
     }
 
+    public void markComplete(Completable completable) {
+        completable.markComplete();
+    }
+
+    public void markIncomplete(Completable completable) {
+        completable.markIncomplete();
+    }
+
     public void completeAll() {
         completables.forEach(Completable::markComplete);
     }
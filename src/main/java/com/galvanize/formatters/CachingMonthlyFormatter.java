@@ -0,0 +1,318 @@
+package com.galvanize.formatters;
+
+import com.galvanize.Calendar;
+import com.galvanize.CalendarListener;
+import com.galvanize.DisplayLocale;
+import com.galvanize.Recurring;
+import com.galvanize.Scheduable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.time.temporal.TemporalAdjusters.firstDayOfMonth;
+import static java.time.temporal.TemporalAdjusters.lastDayOfMonth;
+
+// The same text as MonthlyFormatter, keeping each month's rendered days to splice into later
+// renders. The formatter listens to every calendar it formats and moves a month's version on
+// whenever a change touches it (both months for a reschedule, every month when a recurring
+// series is added, removed or excepted); a kept block is only reused while its month is at the version it was
+// rendered at, so an unchanged month never reads the calendar again. A block is only kept if
+// its month's version didn't move while it was rendered and the calendar had no write that
+// listeners could hear about before readers could see it (a ConcurrentScheduleStore write
+// waiting on an earlier one), so no block is kept at a version its text doesn't show. Blocks
+// are dropped least recently used first once more than maxMonths are kept.
+//
+// The formatter owns the listeners it adds. forget(calendar) takes one off straight away and
+// drops that calendar's months. Otherwise a listener holds the formatter's side only weakly: it
+// goes with its calendar, or takes itself off at the calendar's next change once the formatter
+// has been collected. Listening to a FederatedCalendar never keeps the view alive either.
+public class CachingMonthlyFormatter implements Formattable {
+
+    public static final int DEFAULT_MAX_MONTHS = 600;
+
+    private final DisplayLocale locale;
+    private final Map<Calendar, Registration> calendars = new WeakHashMap<>();
+    private final Map<Key, Block> blocks;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingMonthlyFormatter() {
+        this(DEFAULT_MAX_MONTHS);
+    }
+
+    public CachingMonthlyFormatter(int maxMonths) {
+        this(Locale.US, maxMonths);
+    }
+
+    public CachingMonthlyFormatter(Locale locale) {
+        this(locale, DEFAULT_MAX_MONTHS);
+    }
+
+    // blocks hold only day numbers, so the month names are the only part rendered in `locale`
+    public CachingMonthlyFormatter(Locale locale, int maxMonths) {
+        if (maxMonths < 1) throw new IllegalArgumentException("The cache must hold at least one month");
+        this.locale = DisplayLocale.of(locale);
+        blocks = new LinkedHashMap<Key, Block>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Block> eldest) {
+                return size() > maxMonths;
+            }
+        };
+    }
+
+    public String format(Calendar calendar) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            render(calendar, builder);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void format(Calendar calendar, Appendable out) throws IOException {
+        ChunkedOutput chunks = new ChunkedOutput(out);
+        render(calendar, chunks);
+        chunks.finish();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public int cachedMonths() {
+        synchronized (blocks) {
+            return blocks.size();
+        }
+    }
+
+    // stops listening to the calendar and drops its months; formatting it again starts afresh
+    public void forget(Calendar calendar) {
+        Registration registration;
+        synchronized (calendars) {
+            registration = calendars.remove(calendar);
+        }
+        if (registration == null) return;
+        calendar.removeListener(registration.listener);
+        synchronized (blocks) {
+            blocks.keySet().removeIf(key -> key.versions == registration.versions);
+        }
+    }
+
+    private void render(Calendar calendar, Appendable out) throws IOException {
+        // listen before reading anything, so no change can slip in between
+        Versions versions = versionsOf(calendar);
+        if (calendar.getFirstDateTime() == null) return;
+
+        LocalDate startMonth = calendar.getFirstDateTime().toLocalDate().with(firstDayOfMonth());
+        LocalDate endMonth = calendar.getLastDateTime().toLocalDate().with(lastDayOfMonth());
+
+        for (List<LocalDate> group : MonthlyFormatter.monthGroups(startMonth, endMonth)) {
+            MonthlyFormatter.openGroup(out, group.get(0), locale);
+            int previousDay = 0;
+            for (LocalDate start : group) {
+                int length = (int) Math.min(start.lengthOfMonth(), ChronoUnit.DAYS.between(start, endMonth));
+                out.append(block(calendar, versions, start, length, previousDay));
+                previousDay = start.plusDays(length - 1).getDayOfWeek().getValue();
+            }
+            MonthlyFormatter.closeGroup(out);
+        }
+    }
+
+    private String block(Calendar calendar, Versions versions, LocalDate start, int length, int previousDay) throws IOException {
+        Key key = new Key(versions, YearMonth.from(start));
+        long version = versions.of(key.month);
+        boolean settled = !calendar.hasUnpublishedWrites();
+        Block cached;
+        synchronized (blocks) {
+            cached = blocks.get(key);
+        }
+        if (cached != null && cached.version == version && cached.length == length && cached.previousDay == previousDay) {
+            hits.incrementAndGet();
+            return cached.text;
+        }
+
+        misses.incrementAndGet();
+        StringBuilder text = new StringBuilder(4 * length);
+        MonthlyFormatter.renderDays(text, start, length, previousDay, MonthlyFormatter.busyDays(calendar, start, length), 0);
+        Block rendered = new Block(text.toString(), version, length, previousDay);
+        if (settled && versions.of(key.month) == version) {
+            synchronized (blocks) {
+                blocks.put(key, rendered);
+            }
+        }
+        return rendered.text;
+    }
+
+    private Versions versionsOf(Calendar calendar) {
+        synchronized (calendars) {
+            return calendars.computeIfAbsent(calendar, key -> {
+                Versions versions = new Versions();
+                Detaching listener = new Detaching(key, versions);
+                key.addListener(listener);
+                return new Registration(versions, listener);
+            }).versions;
+        }
+    }
+
+    private static final class Registration {
+
+        private final Versions versions;
+        private final Detaching listener;
+
+        private Registration(Versions versions, Detaching listener) {
+            this.versions = versions;
+            this.listener = listener;
+        }
+    }
+
+    // Passes changes on to a calendar's versions for as long as the formatter keeps them. It holds
+    // both ends weakly, so the calendar never keeps the formatter's state alive, and this never
+    // keeps the calendar alive.
+    private static final class Detaching implements CalendarListener {
+
+        private final WeakReference<Calendar> calendar;
+        private final WeakReference<Versions> versions;
+
+        private Detaching(Calendar calendar, Versions versions) {
+            this.calendar = new WeakReference<>(calendar);
+            this.versions = new WeakReference<>(versions);
+        }
+
+        @Override
+        public void added(Scheduable item) {
+            Versions target = target();
+            if (target != null) target.added(item);
+        }
+
+        @Override
+        public void removed(Scheduable item) {
+            Versions target = target();
+            if (target != null) target.removed(item);
+        }
+
+        @Override
+        public void rescheduled(Scheduable item, LocalDateTime previousStart) {
+            Versions target = target();
+            if (target != null) target.rescheduled(item, previousStart);
+        }
+
+        @Override
+        public void changed(Scheduable item) {
+            Versions target = target();
+            if (target != null) target.changed(item);
+        }
+
+        private Versions target() {
+            Versions target = versions.get();
+            if (target == null) {
+                Calendar listenedTo = calendar.get();
+                if (listenedTo != null) listenedTo.removeListener(this);
+            }
+            return target;
+        }
+    }
+
+    // Which change last touched each month. Versions come from one counter, so a month's version
+    // only ever moves forward, and a change to every month just moves the floor under all of them.
+    private static final class Versions implements CalendarListener {
+
+        private final AtomicLong changes = new AtomicLong();
+        private final ConcurrentHashMap<YearMonth, Long> months = new ConcurrentHashMap<>();
+        private final AtomicLong everyMonth = new AtomicLong();
+
+        private long of(YearMonth month) {
+            return Math.max(months.getOrDefault(month, 0L), everyMonth.get());
+        }
+
+        @Override
+        public void added(Scheduable item) {
+            touch(item, item.getStartTime());
+        }
+
+        @Override
+        public void removed(Scheduable item) {
+            touch(item, item.getStartTime());
+        }
+
+        @Override
+        public void rescheduled(Scheduable item, LocalDateTime previousStart) {
+            touch(item, previousStart);
+            touch(item, item.getStartTime());
+        }
+
+        @Override
+        public void changed(Scheduable item) {
+            touch(item, item.getStartTime());
+        }
+
+        private void touch(Scheduable item, LocalDateTime startsAt) {
+            long version = changes.incrementAndGet();
+            if (item instanceof Recurring) {
+                everyMonth.accumulateAndGet(version, Math::max);
+            } else {
+                months.merge(YearMonth.from(startsAt), version, Math::max);
+            }
+        }
+    }
+
+    private static final class Key {
+
+        private final Versions versions;
+        private final YearMonth month;
+
+        private Key(Versions versions, YearMonth month) {
+            this.versions = versions;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return versions == key.versions && month.equals(key.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(versions), month);
+        }
+    }
+
+    private static final class Block {
+
+        private final String text;
+        private final long version;
+        private final int length;
+        private final int previousDay;
+
+        private Block(String text, long version, int length, int previousDay) {
+            this.text = text;
+            this.version = version;
+            this.length = length;
+            this.previousDay = previousDay;
+        }
+    }
+
+}
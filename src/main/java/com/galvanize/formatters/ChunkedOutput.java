@@ -0,0 +1,52 @@
+package com.galvanize.formatters;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+// Gathers formatter output into chunks and passes each one on as soon as it fills, flushing the
+// destination when it can be flushed. Memory stays at one chunk however long the output is,
+// and the first chunk goes out before the rest has been rendered.
+final class ChunkedOutput implements Appendable {
+
+    static final int CHUNK_SIZE = 8192;
+
+    private final Appendable out;
+    private final StringBuilder chunk = new StringBuilder(CHUNK_SIZE + 256);
+
+    ChunkedOutput(Appendable out) {
+        this.out = out;
+    }
+
+    @Override
+    public Appendable append(CharSequence text) throws IOException {
+        chunk.append(text);
+        if (chunk.length() >= CHUNK_SIZE) emit();
+        return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence text, int start, int end) throws IOException {
+        chunk.append(text, start, end);
+        if (chunk.length() >= CHUNK_SIZE) emit();
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        chunk.append(c);
+        if (chunk.length() >= CHUNK_SIZE) emit();
+        return this;
+    }
+
+    // passes on whatever is left
+    void finish() throws IOException {
+        if (chunk.length() > 0) emit();
+    }
+
+    private void emit() throws IOException {
+        out.append(chunk);
+        chunk.setLength(0);
+        if (out instanceof Flushable) ((Flushable) out).flush();
+    }
+
+}
@@ -2,6 +2,13 @@ package com.galvanize.formatters;
 
 import com.galvanize.Calendar;
 
+import java.io.IOException;
+
 public interface Formattable {
 	String format(Calendar calendar);
+
+	// writes the same text to `out`; formatters that can stream it a piece at a time override this
+	default void format(Calendar calendar, Appendable out) throws IOException {
+		out.append(format(calendar));
+	}
 }
@@ -1,66 +1,221 @@
 package com.galvanize.formatters;
 
 import com.galvanize.Calendar;
+import com.galvanize.DisplayLocale;
+import com.galvanize.Scheduable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Month;
-import java.time.format.TextStyle;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
 import static java.time.temporal.TemporalAdjusters.firstDayOfMonth;
 import static java.time.temporal.TemporalAdjusters.lastDayOfMonth;
-import static java.util.stream.Collectors.*;
 
 public class MonthlyFormatter implements Formattable {
 
-    public String format(Calendar calendar) {
-        if (calendar.getFirstDateTime() == null) return "";
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 24;
 
-        LocalDate startMonth = calendar.getFirstDateTime().toLocalDate().with(firstDayOfMonth());
-        LocalDate endMonth = calendar.getLastDateTime().toLocalDate().with(lastDayOfMonth());
+    // the fewest months one task renders, and how many tasks' worth each batch gives every thread
+    private static final int MONTHS_PER_TASK = 4;
+    private static final int TASKS_PER_THREAD = 2;
+
+    private final DisplayLocale locale;
+    // null when rendering serially
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public MonthlyFormatter() {
+        this(Locale.US);
+    }
+
+    // month names in `locale`; its tables are looked up once, here
+    public MonthlyFormatter(Locale locale) {
+        this(locale, null, Integer.MAX_VALUE);
+    }
+
+    public MonthlyFormatter(ForkJoinPool pool) {
+        this(pool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public MonthlyFormatter(ForkJoinPool pool, int threshold) {
+        this(Locale.US, pool, threshold);
+    }
 
-        Map<Month, List<LocalDate>> monthListMap = Stream.iterate(startMonth, date -> date.plusDays(1))
-                .limit(ChronoUnit.DAYS.between(startMonth, endMonth))
-                .collect(
-                        groupingBy(
-                                LocalDate::getMonth,
-                                LinkedHashMap::new,
-                                mapping(Function.identity(), toList())
-                        ));
+    // Spans of at least `threshold` months are rendered on the pool in batches, each task reading
+    // its own months of the calendar, so the calendar must be safe to read from several threads
+    // at once. Each batch is written out before the next one starts, so only one batch of months
+    // is held in memory. Shorter spans are rendered serially and never touch the pool.
+    public MonthlyFormatter(Locale locale, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("The threshold must be at least one month");
+        this.locale = DisplayLocale.of(locale);
+        this.pool = pool;
+        this.threshold = threshold;
+    }
 
+    public String format(Calendar calendar) {
         StringBuilder builder = new StringBuilder();
+        try {
+            render(calendar, builder);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void format(Calendar calendar, Appendable out) throws IOException {
+        ChunkedOutput chunks = new ChunkedOutput(out);
+        render(calendar, chunks);
+        chunks.finish();
+    }
+
+    private void render(Calendar calendar, Appendable out) throws IOException {
+        if (calendar.getFirstDateTime() == null) return;
+
+        LocalDate startMonth = calendar.getFirstDateTime().toLocalDate().with(firstDayOfMonth());
+        LocalDate endMonth = calendar.getLastDateTime().toLocalDate().with(lastDayOfMonth());
+        int days = (int) ChronoUnit.DAYS.between(startMonth, endMonth);
+        int months = (int) ChronoUnit.MONTHS.between(startMonth, endMonth) + 1;
+        if (pool != null && months >= threshold) {
+            renderInParallel(calendar, out, startMonth, endMonth);
+            return;
+        }
+        BitSet busy = busyDays(calendar, startMonth, days);
 
-        monthListMap.keySet().forEach(month -> {
-            builder.append(month.getDisplayName(TextStyle.FULL, Locale.US)).append("\n");
+        for (List<LocalDate> group : monthGroups(startMonth, endMonth)) {
+            openGroup(out, group.get(0), locale);
             int previousDay = 0;
+            for (LocalDate start : group) {
+                int offset = (int) ChronoUnit.DAYS.between(startMonth, start);
+                int length = Math.min(start.lengthOfMonth(), days - offset);
+                renderDays(out, start, length, previousDay, busy, offset);
+                previousDay = start.plusDays(length - 1).getDayOfWeek().getValue();
+            }
+            closeGroup(out);
+        }
+    }
 
-            builder.append(String.join(" ", Collections.nCopies(monthListMap.get(month).get(0).getDayOfWeek().getValue() - 1, "   ")));
+    // lays the months out in output order, then renders and writes them a batch at a time
+    private void renderInParallel(Calendar calendar, Appendable out, LocalDate startMonth, LocalDate endMonth) throws IOException {
+        List<LocalDate> starts = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        List<Integer> previousDays = new ArrayList<>();
+        BitSet opensGroup = new BitSet();
+        BitSet closesGroup = new BitSet();
+        for (List<LocalDate> group : monthGroups(startMonth, endMonth)) {
+            opensGroup.set(starts.size());
+            int previousDay = 0;
+            for (LocalDate start : group) {
+                int length = (int) Math.min(start.lengthOfMonth(), ChronoUnit.DAYS.between(start, endMonth));
+                starts.add(start);
+                lengths.add(length);
+                previousDays.add(previousDay);
+                previousDay = start.plusDays(length - 1).getDayOfWeek().getValue();
+            }
+            closesGroup.set(starts.size() - 1);
+        }
 
-            for (LocalDate date : monthListMap.get(month)) {
-                if (date.getDayOfWeek().getValue() < previousDay) {
-                    builder.append("\n");
-                } else {
-                    builder.append(" ");
-                }
-                int dayOfMonth = date.getDayOfMonth();
-                String displayDay = String.valueOf(dayOfMonth);
-                if (displayDay.length() == 1) displayDay = " " + displayDay;
-                builder.append(displayDay);
-
-                if (!calendar.descriptionsFor(date).isEmpty()) {
-                    builder.append("*");
-                } else {
-                    builder.append(" ");
+        int months = starts.size();
+        int batch = pool.getParallelism() * TASKS_PER_THREAD * MONTHS_PER_TASK;
+        String[] blocks = new String[Math.min(batch, months)];
+        for (int first = 0; first < months; first += batch) {
+            int last = Math.min(months, first + batch);
+            int offset = first;
+            pool.invoke(new RenderMonths(first, last, index -> {
+                StringBuilder block = new StringBuilder(4 * lengths.get(index));
+                try {
+                    renderDays(block, starts.get(index), lengths.get(index), previousDays.get(index),
+                            busyDays(calendar, starts.get(index), lengths.get(index)), 0);
+                } catch (IOException e) {
+                    // a StringBuilder never throws
+                    throw new UncheckedIOException(e);
                 }
-                previousDay = date.getDayOfWeek().getValue();
+                blocks[index - offset] = block.toString();
+            }));
+
+            for (int index = first; index < last; index++) {
+                if (opensGroup.get(index)) openGroup(out, starts.get(index), locale);
+                out.append(blocks[index - offset]);
+                if (closesGroup.get(index)) closeGroup(out);
             }
+        }
+    }
 
-            builder.append("\n\n");
-        });
+    // Months are grouped by name in the order they first appear, so the same month in different
+    // years shares one block. The span stops short of endMonth itself.
+    static Collection<List<LocalDate>> monthGroups(LocalDate startMonth, LocalDate endMonth) {
+        Map<Month, List<LocalDate>> monthStarts = new LinkedHashMap<>();
+        for (LocalDate month = startMonth; month.isBefore(endMonth); month = month.plusMonths(1)) {
+            monthStarts.computeIfAbsent(month.getMonth(), key -> new ArrayList<>()).add(month);
+        }
+        return monthStarts.values();
+    }
 
-        return builder.toString();
+    static void openGroup(Appendable out, LocalDate start, DisplayLocale locale) throws IOException {
+        out.append(locale.monthName(start.getMonth())).append("\n");
+        int blankDays = start.getDayOfWeek().getValue() - 1;
+        for (int i = 0; i < blankDays; i++) out.append(i == 0 ? "   " : "    ");
+    }
+
+    static void closeGroup(Appendable out) throws IOException {
+        out.append("\n\n");
+    }
+
+    // the first `length` days of the month starting at `start`, whose busy flags begin at `offset`;
+    // previousDay is the day of the week the group's last rendered day fell on, or 0
+    static void renderDays(Appendable out, LocalDate start, int length, int previousDay, BitSet busy, int offset) throws IOException {
+        int dayOfWeek = start.getDayOfWeek().getValue();
+        for (int dayOfMonth = 1; dayOfMonth <= length; dayOfMonth++) {
+            out.append(dayOfWeek < previousDay ? '\n' : ' ');
+            out.append(dayOfMonth < 10 ? ' ' : (char) ('0' + dayOfMonth / 10));
+            out.append((char) ('0' + dayOfMonth % 10));
+            out.append(busy.get(offset + dayOfMonth - 1) ? '*' : ' ');
+            previousDay = dayOfWeek;
+            dayOfWeek = dayOfWeek % 7 + 1;
+        }
+    }
+
+    // one pass over the items in the span, marking the day each of them starts on
+    static BitSet busyDays(Calendar calendar, LocalDate start, int days) {
+        BitSet busy = new BitSet(days);
+        LocalDateTime from = start.atStartOfDay();
+        long firstDay = start.toEpochDay();
+        for (Scheduable item : calendar.between(from, from.plusDays(days))) {
+            busy.set((int) (item.getStartTime().toLocalDate().toEpochDay() - firstDay));
+        }
+        return busy;
+    }
+
+    private static final class RenderMonths extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer month;
+
+        private RenderMonths(int from, int to, IntConsumer month) {
+            this.from = from;
+            this.to = to;
+            this.month = month;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MONTHS_PER_TASK) {
+                for (int index = from; index < to; index++) month.accept(index);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RenderMonths(from, middle, month), new RenderMonths(middle, to, month));
+        }
     }
 }
@@ -1,19 +1,99 @@
 package com.galvanize.formatters;
 
+import com.galvanize.AgendaPage;
 import com.galvanize.Calendar;
+import com.galvanize.DisplayLocale;
+import com.galvanize.DisplayText;
+import com.galvanize.Scheduable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 public class ScheduleFormatter implements Formattable {
 
+    private final DisplayLocale locale;
+
+    // items read as their toString() does
+    public ScheduleFormatter() {
+        this.locale = DisplayLocale.getDefault();
+    }
+
+    // items' dates written the way `locale` writes them; its tables are looked up once, here
+    public ScheduleFormatter(Locale locale) {
+        this.locale = DisplayLocale.of(locale);
+    }
+
     public String format(Calendar calendar) {
         StringBuilder builder = new StringBuilder();
-        calendar.dates().forEach(date -> {
-            builder.append(date).append("\n");
-            calendar.descriptionsFor(date).forEach(description -> {
-                builder.append(" - ").append(description).append("\n");
-            });
-            builder.append("\n");
-        });
+        try {
+            render(calendar, builder);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void format(Calendar calendar, Appendable out) throws IOException {
+        ChunkedOutput chunks = new ChunkedOutput(out);
+        render(calendar, chunks);
+        chunks.finish();
+    }
 
+    // just the days from `from` to `to`, both included
+    public String format(Calendar calendar, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) throw new IllegalArgumentException("The range ends before it starts");
+        return render(calendar.between(from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+    }
+
+    // One page from Calendar.agenda, laid out like the whole schedule; a day split across pages
+    // gets its heading on each. To page through the days from `from` to `to`, fetch
+    // agenda(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), pageSize) and then pass the end
+    // along with each page's cursor, so every page costs one seek plus the items on it.
+    public String format(AgendaPage page) {
+        return render(page.getItems());
+    }
+
+    private void render(Calendar calendar, Appendable out) throws IOException {
+        LocalDateTime first = calendar.getFirstDateTime();
+        if (first == null) return;
+        LocalDateTime end = calendar.getLastDateTime().toLocalDate().plusDays(1).atStartOfDay();
+        render(calendar.between(first.toLocalDate().atStartOfDay(), end), out);
+    }
+
+    private String render(Iterable<Scheduable> items) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            render(items, builder);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
         return builder.toString();
     }
+
+    // one pass over the items, starting a new heading whenever the day changes
+    private void render(Iterable<Scheduable> items, Appendable out) throws IOException {
+        // every line is put together here first, so items render without making strings of their own
+        StringBuilder line = new StringBuilder(128);
+        LocalDate current = null;
+        for (Scheduable item : items) {
+            line.setLength(0);
+            LocalDate date = item.getStartTime().toLocalDate();
+            if (!date.equals(current)) {
+                if (current != null) line.append('\n');
+                DisplayText.appendDate(line, date);
+                line.append('\n');
+                current = date;
+            }
+            line.append(" - ");
+            DisplayText.append(line, item, locale);
+            out.append(line.append('\n'));
+        }
+        if (current != null) out.append('\n');
+    }
 }
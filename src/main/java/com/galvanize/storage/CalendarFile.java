@@ -0,0 +1,178 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.Completable;
+import com.galvanize.ICalendarItem;
+import com.galvanize.ItemCodec;
+import com.galvanize.Recurring;
+import com.galvanize.Scheduable;
+import com.galvanize.TodoList;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// A calendar (and optionally a todo list) saved as one file that is opened by mapping it
+// rather than reading it:
+//
+//   header   magic, version, item count, series count, todo count, reserved (six ints)
+//   columns  start epoch seconds (long) and nanos (int) for every item in start order,
+//            then an int record offset per item, per recurring series and per todo
+//   records  one ItemCodec record per distinct object, so a reminder that is both scheduled
+//            and on the todo list is written once and comes back as one object
+//
+// Files are written to a temporary sibling and moved into place, and are limited to 2GB.
+public final class CalendarFile {
+
+    private static final int MAGIC = 0x43414c31;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+
+    private final MappedScheduleStore store;
+    private final List<ICalendarItem> series;
+    private final List<ICalendarItem> todos;
+
+    private CalendarFile(MappedScheduleStore store, List<ICalendarItem> series, List<ICalendarItem> todos) {
+        this.store = store;
+        this.series = series;
+        this.todos = todos;
+    }
+
+    public static void write(Path path, Calendar calendar) throws IOException {
+        write(path, calendar, new TodoList());
+    }
+
+    public static void write(Path path, Calendar calendar, TodoList todoList) throws IOException {
+        List<Scheduable> scheduled = new ArrayList<>();
+        List<Object> series = new ArrayList<>();
+        for (Scheduable item : calendar.items()) {
+            if (item instanceof Recurring) {
+                series.add(item);
+            } else {
+                scheduled.add(item);
+            }
+        }
+        List<Object> todos = new ArrayList<>(todoList.all());
+        for (List<?> items : new List<?>[]{scheduled, series, todos}) {
+            for (Object item : items) {
+                if (!ItemCodec.canWrite(item)) {
+                    throw new IllegalArgumentException("Can't store " + item.getClass().getName());
+                }
+            }
+        }
+
+        int recordsAt = HEADER_SIZE + 16 * scheduled.size() + 4 * (series.size() + todos.size());
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            // records first, so the columns can point at them
+            channel.position(recordsAt);
+            DataOutputStream records = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            Map<Object, Integer> offsets = new IdentityHashMap<>();
+            for (List<?> items : new List<?>[]{scheduled, series, todos}) {
+                for (Object item : items) {
+                    if (offsets.containsKey(item)) continue;
+                    offsets.put(item, recordsAt + records.size());
+                    ItemCodec.write(records, item);
+                }
+            }
+            records.flush();
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Calendar files are limited to 2GB");
+
+            channel.position(0);
+            DataOutputStream header = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(scheduled.size());
+            header.writeInt(series.size());
+            header.writeInt(todos.size());
+            header.writeInt(0);
+            for (Scheduable item : scheduled) {
+                header.writeLong(item.getStartTime().toEpochSecond(ZoneOffset.UTC));
+            }
+            for (Scheduable item : scheduled) {
+                header.writeInt(item.getStartTime().getNano());
+            }
+            for (List<?> items : new List<?>[]{scheduled, series, todos}) {
+                for (Object item : items) {
+                    header.writeInt(offsets.get(item));
+                }
+            }
+            header.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    public static CalendarFile open(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Calendar files are limited to 2GB");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a calendar file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(String.format("%s has unsupported version %d", path, buffer.getInt(4)));
+        }
+        int size = buffer.getInt(8);
+        int seriesCount = buffer.getInt(12);
+        int todoCount = buffer.getInt(16);
+        MappedScheduleStore store = new MappedScheduleStore(buffer, size, HEADER_SIZE);
+
+        // series and todos are few, so they are decoded up front
+        int seriesAt = HEADER_SIZE + 16 * size;
+        List<ICalendarItem> series = new ArrayList<>(seriesCount);
+        for (int i = 0; i < seriesCount; i++) {
+            series.add(store.record(buffer.getInt(seriesAt + 4 * i)));
+        }
+        int todosAt = seriesAt + 4 * seriesCount;
+        List<ICalendarItem> todos = new ArrayList<>(todoCount);
+        for (int i = 0; i < todoCount; i++) {
+            todos.add(store.record(buffer.getInt(todosAt + 4 * i)));
+        }
+        return new CalendarFile(store, series, todos);
+    }
+
+    public ScheduleStore store() {
+        return store;
+    }
+
+    // a read-only calendar over the mapped file
+    public Calendar calendar() {
+        Calendar calendar = new Calendar(store);
+        for (ICalendarItem recurring : series) {
+            calendar.addSchedulable((Scheduable) recurring);
+        }
+        return calendar;
+    }
+
+    public TodoList todoList() {
+        TodoList todoList = new TodoList();
+        for (ICalendarItem todo : todos) {
+            todoList.add((Completable) todo);
+        }
+        return todoList;
+    }
+
+}
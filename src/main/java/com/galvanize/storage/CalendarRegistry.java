@@ -0,0 +1,277 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.TodoList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+// One calendar and todo list per user, loaded on demand and kept in memory while they fit a
+// budget. The budget is either a number of users or an estimate of bytes on heap; when it is
+// exceeded the least recently used users are written to a CalendarFile in the directory and
+// dropped. Tenants are handed out on leases: a leased tenant is never saved or evicted, so
+// whoever holds the lease can keep changing it, and it is weighed again and becomes evictable
+// once its last lease is closed. Don't use a tenant after closing the lease it came from.
+// Evicted tenants are picked under the registry's lock but written out after it is let go, so
+// a slow disk holds up only the caller whose lease or release caused the eviction; a user
+// leased again while being written out gets the same tenant back rather than a stale file.
+public class CalendarRegistry {
+
+    // rough heap cost of one item with its strings, times and index entries
+    static final long ESTIMATED_BYTES_PER_ITEM = 400;
+    static final long ESTIMATED_BYTES_PER_TENANT = 2_048;
+
+    private static final Pattern USER_ID = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final Path directory;
+    private final long budget;
+    private final ToLongFunction<Tenant> weigher;
+    private final LinkedHashMap<String, Tenant> resident = new LinkedHashMap<>(16, 0.75f, true);
+    // evicted tenants whose files are still being written
+    private final Map<String, Tenant> evicting = new HashMap<>();
+    private long residentWeight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CalendarRegistry(Path directory, long budget, ToLongFunction<Tenant> weigher) {
+        this.directory = directory;
+        this.budget = budget;
+        this.weigher = weigher;
+    }
+
+    public static CalendarRegistry byCount(Path directory, int maxTenants) {
+        return new CalendarRegistry(directory, maxTenants, tenant -> 1);
+    }
+
+    public static CalendarRegistry byBytes(Path directory, long maxBytes) {
+        return new CalendarRegistry(directory, maxBytes, tenant -> ESTIMATED_BYTES_PER_TENANT +
+                ESTIMATED_BYTES_PER_ITEM * (tenant.getCalendar().size() + tenant.getTodoList().all().size()));
+    }
+
+    // Pins the user's tenant in memory until the lease is closed. If writing out the tenants this
+    // pushes over the budget fails, no lease is taken and those tenants stay in memory.
+    public Lease lease(String userId) {
+        if (!USER_ID.matcher(userId).matches()) throw new IllegalArgumentException("Invalid user id: " + userId);
+        Tenant tenant;
+        List<String> victims;
+        synchronized (this) {
+            tenant = resident.get(userId);
+            if (tenant != null) {
+                hits++;
+            } else {
+                misses++;
+                tenant = evicting.get(userId);
+                if (tenant == null) tenant = load(userId);
+                resident.put(userId, tenant);
+                tenant.weight = weigher.applyAsLong(tenant);
+                residentWeight += tenant.weight;
+            }
+            tenant.leases++;
+            victims = evictBeyondBudget();
+        }
+        try {
+            saveEvicted(victims);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                tenant.leases--;
+            }
+            throw e;
+        }
+        return new Lease(tenant);
+    }
+
+    // writes every tenant nobody holds a lease on to disk, keeping them in memory; leased tenants
+    // are written once they are released and evicted
+    public void flush() {
+        List<Map.Entry<String, Tenant>> unleased = new ArrayList<>();
+        synchronized (this) {
+            resident.forEach((userId, tenant) -> {
+                if (tenant.leases == 0) unleased.add(new AbstractMap.SimpleImmutableEntry<>(userId, tenant));
+            });
+        }
+        for (Map.Entry<String, Tenant> entry : unleased) save(entry.getKey(), entry.getValue());
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized int residentTenants() {
+        return resident.size();
+    }
+
+    public synchronized long residentWeight() {
+        return residentWeight;
+    }
+
+    private synchronized List<String> release(Tenant tenant) {
+        if (--tenant.leases > 0) return Collections.emptyList();
+        // the tenant may have grown while it was leased
+        residentWeight -= tenant.weight;
+        tenant.weight = weigher.applyAsLong(tenant);
+        residentWeight += tenant.weight;
+        return evictBeyondBudget();
+    }
+
+    // Takes the least recently used unleased tenants out until the budget is met and hands back
+    // their user ids, for saveEvicted to write out. Leased tenants are never evicted, so the
+    // budget can be overrun until they are released.
+    private List<String> evictBeyondBudget() {
+        List<String> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, Tenant>> eldest = resident.entrySet().iterator();
+        while (residentWeight > budget && eldest.hasNext()) {
+            Map.Entry<String, Tenant> entry = eldest.next();
+            Tenant tenant = entry.getValue();
+            if (tenant.leases > 0) continue;
+            residentWeight -= tenant.weight;
+            eldest.remove();
+            evicting.put(entry.getKey(), tenant);
+            tenant.pendingSaves++;
+            victims.add(entry.getKey());
+        }
+        return victims;
+    }
+
+    // called without the lock; a tenant that can't be written goes back in memory
+    private void saveEvicted(List<String> victims) {
+        RuntimeException failure = null;
+        for (String userId : victims) {
+            Tenant tenant;
+            synchronized (this) {
+                tenant = evicting.get(userId);
+            }
+            boolean saved = false;
+            try {
+                save(userId, tenant);
+                saved = true;
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } finally {
+                synchronized (this) {
+                    if (--tenant.pendingSaves == 0) evicting.remove(userId);
+                    if (saved) {
+                        evictions++;
+                    } else if (!resident.containsKey(userId)) {
+                        resident.put(userId, tenant);
+                        residentWeight += tenant.weight;
+                    }
+                }
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private Tenant load(String userId) {
+        Path path = pathFor(userId);
+        if (!Files.exists(path)) return new Tenant(new Calendar(), new TodoList());
+        try {
+            CalendarFile file = CalendarFile.open(path);
+            Calendar calendar = new Calendar();
+            calendar.addAll(file.calendar().items());
+            TodoList todoList = new TodoList();
+            file.todoList().all().forEach(todoList::add);
+            return new Tenant(calendar, todoList);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // one write per tenant at a time, so the last to finish has the tenant as it is now
+    private void save(String userId, Tenant tenant) {
+        synchronized (tenant) {
+            try {
+                CalendarFile.write(pathFor(userId), tenant.getCalendar(), tenant.getTodoList());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Path pathFor(String userId) {
+        return directory.resolve(userId + ".calendar");
+    }
+
+    public final class Lease implements AutoCloseable {
+
+        private final Tenant tenant;
+        private boolean closed;
+
+        private Lease(Tenant tenant) {
+            this.tenant = tenant;
+        }
+
+        public Tenant getTenant() {
+            synchronized (CalendarRegistry.this) {
+                if (closed) throw new IllegalStateException("This lease has been closed");
+                return tenant;
+            }
+        }
+
+        public Calendar getCalendar() {
+            return getTenant().getCalendar();
+        }
+
+        public TodoList getTodoList() {
+            return getTenant().getTodoList();
+        }
+
+        @Override
+        public void close() {
+            List<String> victims;
+            synchronized (CalendarRegistry.this) {
+                if (closed) return;
+                closed = true;
+                victims = release(tenant);
+            }
+            saveEvicted(victims);
+        }
+    }
+
+    public static final class Tenant {
+
+        private final Calendar calendar;
+        private final TodoList todoList;
+        private long weight;
+        private int leases;
+        private int pendingSaves;
+
+        private Tenant(Calendar calendar, TodoList todoList) {
+            this.calendar = calendar;
+            this.todoList = todoList;
+        }
+
+        public Calendar getCalendar() {
+            return calendar;
+        }
+
+        public TodoList getTodoList() {
+            return todoList;
+        }
+    }
+
+}
@@ -0,0 +1,313 @@
+package com.galvanize.storage;
+
+import com.galvanize.Scheduable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Keeps start times as primitive columns (epoch seconds and nanos) next to a column of
+// item references, all sorted by start time. Lookups are binary searches over the
+// primitives, and nothing but the arrays themselves is allocated per item. Single inserts and
+// removals shift the arrays, so large loads should go through addAll, which merges a sorted batch in.
+public class ColumnarScheduleStore implements ScheduleStore {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] seconds;
+    private int[] nanos;
+    private Scheduable[] items;
+    private int size;
+    private int modifications;
+    private boolean readOnly;
+
+    public ColumnarScheduleStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ColumnarScheduleStore(int capacity) {
+        seconds = new long[Math.max(capacity, 1)];
+        nanos = new int[seconds.length];
+        items = new Scheduable[seconds.length];
+    }
+
+    // the items must already be in start time order
+    static ColumnarScheduleStore readOnlyCopyOf(Collection<Scheduable> sortedItems) {
+        ColumnarScheduleStore store = new ColumnarScheduleStore(sortedItems.size());
+        for (Scheduable item : sortedItems) {
+            LocalDateTime dateTime = item.getStartTime();
+            store.seconds[store.size] = dateTime.toEpochSecond(ZoneOffset.UTC);
+            store.nanos[store.size] = dateTime.getNano();
+            store.items[store.size++] = item;
+        }
+        store.readOnly = true;
+        return store;
+    }
+
+    @Override
+    public void add(Scheduable item) {
+        ensureWritable();
+        LocalDateTime dateTime = item.getStartTime();
+        long second = dateTime.toEpochSecond(ZoneOffset.UTC);
+        int nano = dateTime.getNano();
+        int index = upperBound(second, nano);
+        ensureCapacity(size + 1);
+        System.arraycopy(seconds, index, seconds, index + 1, size - index);
+        System.arraycopy(nanos, index, nanos, index + 1, size - index);
+        System.arraycopy(items, index, items, index + 1, size - index);
+        seconds[index] = second;
+        nanos[index] = nano;
+        items[index] = item;
+        size++;
+        modifications++;
+    }
+
+    @Override
+    public void addAll(Collection<? extends Scheduable> added) {
+        ensureWritable();
+        int count = added.size();
+        if (count == 0) return;
+
+        long[] batchSeconds = new long[count];
+        int[] batchNanos = new int[count];
+        Scheduable[] batchItems = new Scheduable[count];
+        int i = 0;
+        for (Scheduable item : added) {
+            LocalDateTime dateTime = item.getStartTime();
+            batchSeconds[i] = dateTime.toEpochSecond(ZoneOffset.UTC);
+            batchNanos[i] = dateTime.getNano();
+            batchItems[i] = item;
+            i++;
+        }
+        int[] order = sortedOrder(batchSeconds, batchNanos);
+
+        long[] mergedSeconds = new long[Math.max(size + count, seconds.length)];
+        int[] mergedNanos = new int[mergedSeconds.length];
+        Scheduable[] mergedItems = new Scheduable[mergedSeconds.length];
+        int existing = 0;
+        int batch = 0;
+        for (int target = 0; target < size + count; target++) {
+            // existing items win ties so the batch lands after anything already scheduled at that time
+            boolean takeExisting = batch == count || (existing < size &&
+                    compare(seconds[existing], nanos[existing], batchSeconds[order[batch]], batchNanos[order[batch]]) <= 0);
+            if (takeExisting) {
+                mergedSeconds[target] = seconds[existing];
+                mergedNanos[target] = nanos[existing];
+                mergedItems[target] = items[existing++];
+            } else {
+                int source = order[batch++];
+                mergedSeconds[target] = batchSeconds[source];
+                mergedNanos[target] = batchNanos[source];
+                mergedItems[target] = batchItems[source];
+            }
+        }
+        seconds = mergedSeconds;
+        nanos = mergedNanos;
+        items = mergedItems;
+        size += count;
+        modifications++;
+    }
+
+    @Override
+    public boolean remove(Scheduable item) {
+        ensureWritable();
+        LocalDateTime dateTime = item.getStartTime();
+        long second = dateTime.toEpochSecond(ZoneOffset.UTC);
+        int nano = dateTime.getNano();
+        for (int index = lowerBound(second, nano), end = upperBound(second, nano); index < end; index++) {
+            if (items[index] != item) continue;
+            System.arraycopy(seconds, index + 1, seconds, index, size - index - 1);
+            System.arraycopy(nanos, index + 1, nanos, index, size - index - 1);
+            System.arraycopy(items, index + 1, items, index, size - index - 1);
+            items[--size] = null;
+            modifications++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Scheduable> items() {
+        return new ArrayList<>(Arrays.asList(items).subList(0, size));
+    }
+
+    @Override
+    public List<LocalDate> dates() {
+        List<LocalDate> dates = new ArrayList<>();
+        int index = 0;
+        while (index < size) {
+            long day = Math.floorDiv(seconds[index], SECONDS_PER_DAY);
+            dates.add(LocalDate.ofEpochDay(day));
+            index = lowerBound((day + 1) * SECONDS_PER_DAY, 0);
+        }
+        return dates;
+    }
+
+    @Override
+    public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+        return new Range(from, to);
+    }
+
+    @Override
+    public LocalDateTime getFirstDateTime() {
+        return size == 0 ? null : dateTimeAt(0);
+    }
+
+    @Override
+    public LocalDateTime getLastDateTime() {
+        return size == 0 ? null : dateTimeAt(size - 1);
+    }
+
+    @Override
+    public ScheduleStore snapshot() {
+        if (readOnly) return this;
+        ColumnarScheduleStore copy = new ColumnarScheduleStore(size);
+        System.arraycopy(seconds, 0, copy.seconds, 0, size);
+        System.arraycopy(nanos, 0, copy.nanos, 0, size);
+        System.arraycopy(items, 0, copy.items, 0, size);
+        copy.size = size;
+        copy.readOnly = true;
+        return copy;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    private void ensureWritable() {
+        if (readOnly) throw new UnsupportedOperationException("This schedule is read-only");
+    }
+
+    private LocalDateTime dateTimeAt(int index) {
+        return LocalDateTime.ofEpochSecond(seconds[index], nanos[index], ZoneOffset.UTC);
+    }
+
+    // first index whose start is >= the given instant
+    private int lowerBound(long second, int nano) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(seconds[middle], nanos[middle], second, nano) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // first index whose start is > the given instant
+    private int upperBound(long second, int nano) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(seconds[middle], nanos[middle], second, nano) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= seconds.length) return;
+        int grown = Math.max(capacity, seconds.length + (seconds.length >> 1));
+        seconds = Arrays.copyOf(seconds, grown);
+        nanos = Arrays.copyOf(nanos, grown);
+        items = Arrays.copyOf(items, grown);
+    }
+
+    private static int compare(long secondA, int nanoA, long secondB, int nanoB) {
+        int result = Long.compare(secondA, secondB);
+        return result != 0 ? result : Integer.compare(nanoA, nanoB);
+    }
+
+    // stable merge sort of positions, comparing the primitive columns directly
+    private static int[] sortedOrder(long[] seconds, int[] nanos) {
+        int[] order = new int[seconds.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        int[] buffer = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2) {
+            for (int low = 0; low < order.length; low += 2 * width) {
+                int middle = Math.min(low + width, order.length);
+                int high = Math.min(low + 2 * width, order.length);
+                int left = low;
+                int right = middle;
+                for (int target = low; target < high; target++) {
+                    if (right >= high || (left < middle &&
+                            compare(seconds[order[left]], nanos[order[left]], seconds[order[right]], nanos[order[right]]) <= 0)) {
+                        buffer[target] = order[left++];
+                    } else {
+                        buffer[target] = order[right++];
+                    }
+                }
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+    // the bounds are searched again for every iteration and size(), so the range follows the store
+    private final class Range extends AbstractCollection<Scheduable> {
+
+        private final long fromSecond;
+        private final int fromNano;
+        private final long toSecond;
+        private final int toNano;
+
+        private Range(LocalDateTime from, LocalDateTime to) {
+            this.fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+            this.fromNano = from.getNano();
+            this.toSecond = to.toEpochSecond(ZoneOffset.UTC);
+            this.toNano = to.getNano();
+        }
+
+        @Override
+        public Iterator<Scheduable> iterator() {
+            int fromIndex = lowerBound(fromSecond, fromNano);
+            int toIndex = Math.max(fromIndex, lowerBound(toSecond, toNano));
+            int expectedModifications = modifications;
+            return new Iterator<Scheduable>() {
+                private int index = fromIndex;
+
+                @Override
+                public boolean hasNext() {
+                    return index < toIndex;
+                }
+
+                @Override
+                public Scheduable next() {
+                    if (modifications != expectedModifications) throw new ConcurrentModificationException();
+                    if (index >= toIndex) throw new NoSuchElementException();
+                    return items[index++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return Math.max(0, lowerBound(toSecond, toNano) - lowerBound(fromSecond, fromNano));
+        }
+    }
+
+}
@@ -0,0 +1,328 @@
+package com.galvanize.storage;
+
+import com.galvanize.Scheduable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Thread-safe store backed by a skip list. Writers insert in parallel; each insert or removal
+// takes a sequence number, and readers only see entries numbered below the published watermark,
+// so a reader always sees an exact prefix of the inserts. No writer waits for another: a finished
+// change is recorded as complete, and whichever writer finds the change at the watermark complete
+// moves the watermark past it and past every completed change after it, with a compare-and-set.
+// A writer stalled between its insert and its publish only holds back what readers see.
+// Reads never lock: every read method works against the prefix visible when it was called, and
+// snapshot() pins one prefix for callers that need several reads to agree (formatters, for
+// example). Removed items are unlinked straight away, so a snapshot taken before a removal can
+// lose that item, but never gains one; a snapshot's size() counts what it can still see.
+public class ConcurrentScheduleStore implements ScheduleStore {
+
+    private final ConcurrentSkipListMap<Slot, Scheduable> schedulables = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReference<Watermark> published = new AtomicReference<>(new Watermark(0, 0));
+    // changes that have landed but sit above the watermark, by their first sequence number
+    private final ConcurrentHashMap<Long, Change> completed = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(Scheduable item) {
+        LocalDateTime startsAt = Objects.requireNonNull(item.getStartTime());
+        long ticket = sequence.getAndIncrement();
+        boolean added = false;
+        try {
+            schedulables.put(new Slot(startsAt, ticket), item);
+            added = true;
+        } finally {
+            publish(ticket, 1, added ? 1 : 0);
+        }
+    }
+
+    @Override
+    public void addAll(Collection<? extends Scheduable> items) {
+        List<Scheduable> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(Scheduable::getStartTime));
+        if (sorted.isEmpty()) return;
+        long first = sequence.getAndAdd(sorted.size());
+        long ticket = first;
+        try {
+            for (Scheduable item : sorted) {
+                schedulables.put(new Slot(item.getStartTime(), ticket), item);
+                ticket++;
+            }
+        } finally {
+            publish(first, sorted.size(), (int) (ticket - first));
+        }
+    }
+
+    @Override
+    public boolean remove(Scheduable item) {
+        LocalDateTime startsAt = item.getStartTime();
+        Slot slot = null;
+        for (Map.Entry<Slot, Scheduable> entry : schedulables.subMap(Slot.first(startsAt), true, new Slot(startsAt, Long.MAX_VALUE), true).entrySet()) {
+            if (entry.getValue() == item) {
+                slot = entry.getKey();
+                break;
+            }
+        }
+        if (slot == null) return false;
+
+        long ticket = sequence.getAndIncrement();
+        boolean removed = false;
+        try {
+            removed = schedulables.remove(slot, item);
+        } finally {
+            publish(ticket, 1, removed ? -1 : 0);
+        }
+        return removed;
+    }
+
+    // a writer stalled before publishing holds back every write numbered after it
+    @Override
+    public boolean hasUnpublishedWrites() {
+        long watermark = published.get().ticket;
+        return sequence.get() > watermark;
+    }
+
+    // the size as of the published watermark, without walking the entries
+    @Override
+    public int size() {
+        return published.get().size;
+    }
+
+    @Override
+    public List<Scheduable> items() {
+        return current().items();
+    }
+
+    @Override
+    public List<LocalDate> dates() {
+        return current().dates();
+    }
+
+    // each iteration reads the prefix visible when it starts
+    @Override
+    public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+        return new AbstractCollection<Scheduable>() {
+            @Override
+            public Iterator<Scheduable> iterator() {
+                return current().between(from, to).iterator();
+            }
+
+            @Override
+            public int size() {
+                return current().between(from, to).size();
+            }
+        };
+    }
+
+    @Override
+    public LocalDateTime getFirstDateTime() {
+        return current().getFirstDateTime();
+    }
+
+    @Override
+    public LocalDateTime getLastDateTime() {
+        return current().getLastDateTime();
+    }
+
+    @Override
+    public ScheduleStore snapshot() {
+        return current();
+    }
+
+    private Snapshot current() {
+        return new Snapshot(published.get().ticket);
+    }
+
+    // Records this change as complete, then moves the watermark over every completed change it has
+    // reached. Recording before looking means that of two writers finishing side by side, at least
+    // one sees the other's change and carries the watermark past both.
+    private void publish(long ticket, int tickets, int sizeChange) {
+        completed.put(ticket, new Change(tickets, sizeChange));
+        while (true) {
+            Watermark current = published.get();
+            Change next = completed.get(current.ticket);
+            if (next == null) return;
+            if (published.compareAndSet(current, new Watermark(current.ticket + next.tickets, current.size + next.sizeChange))) {
+                completed.remove(current.ticket);
+            }
+        }
+    }
+
+    private static final class Change {
+
+        private final int tickets;
+        private final int sizeChange;
+
+        private Change(int tickets, int sizeChange) {
+            this.tickets = tickets;
+            this.sizeChange = sizeChange;
+        }
+    }
+
+    private static final class Watermark {
+
+        private final long ticket;
+        private final int size;
+
+        private Watermark(long ticket, int size) {
+            this.ticket = ticket;
+            this.size = size;
+        }
+    }
+
+    private class Snapshot implements ScheduleStore {
+
+        private final long watermark;
+
+        private Snapshot(long watermark) {
+            this.watermark = watermark;
+        }
+
+        @Override
+        public void add(Scheduable item) {
+            throw new UnsupportedOperationException("This schedule is read-only");
+        }
+
+        @Override
+        public void addAll(Collection<? extends Scheduable> items) {
+            throw new UnsupportedOperationException("This schedule is read-only");
+        }
+
+        @Override
+        public boolean remove(Scheduable item) {
+            throw new UnsupportedOperationException("This schedule is read-only");
+        }
+
+        // counted, since removals unlink entries this snapshot could otherwise still see
+        @Override
+        public int size() {
+            int size = 0;
+            for (Iterator<Map.Entry<Slot, Scheduable>> entries = visible(schedulables); entries.hasNext(); entries.next()) {
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public List<Scheduable> items() {
+            List<Scheduable> items = new ArrayList<>();
+            visible(schedulables).forEachRemaining(entry -> items.add(entry.getValue()));
+            return items;
+        }
+
+        @Override
+        public List<LocalDate> dates() {
+            List<LocalDate> dates = new ArrayList<>();
+            Map.Entry<Slot, Scheduable> entry = firstVisible(schedulables);
+            while (entry != null) {
+                LocalDate date = entry.getKey().getStartsAt().toLocalDate();
+                dates.add(date);
+                entry = firstVisible(schedulables.tailMap(Slot.first(date.plusDays(1).atStartOfDay()), true));
+            }
+            return dates;
+        }
+
+        @Override
+        public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+            if (!from.isBefore(to)) return Collections.emptyList();
+            NavigableMap<Slot, Scheduable> range = schedulables.subMap(Slot.first(from), true, Slot.first(to), false);
+            return new AbstractCollection<Scheduable>() {
+                @Override
+                public Iterator<Scheduable> iterator() {
+                    Iterator<Map.Entry<Slot, Scheduable>> entries = visible(range);
+                    return new Iterator<Scheduable>() {
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Scheduable next() {
+                            return entries.next().getValue();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Iterator<Map.Entry<Slot, Scheduable>> entries = visible(range); entries.hasNext(); entries.next()) {
+                        size++;
+                    }
+                    return size;
+                }
+            };
+        }
+
+        @Override
+        public LocalDateTime getFirstDateTime() {
+            Map.Entry<Slot, Scheduable> entry = firstVisible(schedulables);
+            return entry == null ? null : entry.getKey().getStartsAt();
+        }
+
+        @Override
+        public LocalDateTime getLastDateTime() {
+            Map.Entry<Slot, Scheduable> entry = firstVisible(schedulables.descendingMap());
+            return entry == null ? null : entry.getKey().getStartsAt();
+        }
+
+        @Override
+        public ScheduleStore snapshot() {
+            return this;
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return true;
+        }
+
+        private Map.Entry<Slot, Scheduable> firstVisible(NavigableMap<Slot, Scheduable> map) {
+            Iterator<Map.Entry<Slot, Scheduable>> entries = visible(map);
+            return entries.hasNext() ? entries.next() : null;
+        }
+
+        private Iterator<Map.Entry<Slot, Scheduable>> visible(NavigableMap<Slot, Scheduable> map) {
+            Iterator<Map.Entry<Slot, Scheduable>> entries = map.entrySet().iterator();
+            return new Iterator<Map.Entry<Slot, Scheduable>>() {
+                private Map.Entry<Slot, Scheduable> next = advance();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Map.Entry<Slot, Scheduable> next() {
+                    if (next == null) throw new NoSuchElementException();
+                    Map.Entry<Slot, Scheduable> current = next;
+                    next = advance();
+                    return current;
+                }
+
+                private Map.Entry<Slot, Scheduable> advance() {
+                    while (entries.hasNext()) {
+                        Map.Entry<Slot, Scheduable> entry = entries.next();
+                        if (entry.getKey().getSequence() < watermark) return entry;
+                    }
+                    return null;
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,435 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.Completable;
+import com.galvanize.ICalendarItem;
+import com.galvanize.ItemCodec;
+import com.galvanize.RecurringEvent;
+import com.galvanize.Scheduable;
+import com.galvanize.TodoList;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// Write-ahead journal for a calendar and a todo list. Every change made through calendar() or
+// todoList() is applied and appended as one frame (length, CRC32, payload) under the journal's
+// lock, and the call returns once that frame is on disk. Syncing happens outside the lock with
+// group commit: the first caller to need a sync writes and forces everything appended so far,
+// and callers whose frames went out in that batch return without syncing themselves.
+//
+// Opening a journal replays it into a fresh calendar and todo list, reading one frame at a time
+// so the journal can grow past what fits in memory. Replay stops at the first frame that is cut
+// short or fails its checksum (a write torn by a crash) and truncates the file there.
+// Completion changes are only journaled when they go through the todo list (markComplete,
+// markIncomplete, completeAll, uncompleteAll), and exceptions to a series when they go through
+// Calendar.except, not when made on the item itself.
+public final class Journal implements Closeable {
+
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte RESCHEDULE = 3;
+    private static final byte TODO_ADD = 4;
+    private static final byte COMPLETION = 5;
+    private static final byte EXCEPT = 6;
+
+    private static final int FRAME_HEADER = 8;
+    private static final int REPLAY_BUFFER = 64 * 1024;
+
+    private final FileChannel channel;
+    private final JournaledCalendar calendar = new JournaledCalendar();
+    private final JournaledTodoList todoList = new JournaledTodoList();
+
+    // guards the calendar, the todo list and everything below
+    private final Object lock = new Object();
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    private final DataOutputStream payloadOut = new DataOutputStream(payload);
+    private final CRC32 crc = new CRC32();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;
+    private long durable;
+    private boolean syncing;
+    private boolean nested;
+    private IOException failure;
+    private long syncs;
+
+    private Journal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static Journal open(Path path) throws IOException {
+        return open(FileChannel.open(path, CREATE, READ, WRITE));
+    }
+
+    static Journal open(FileChannel channel) throws IOException {
+        try {
+            Journal journal = new Journal(channel);
+            journal.replay();
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Calendar calendar() {
+        return calendar;
+    }
+
+    public TodoList todoList() {
+        return todoList;
+    }
+
+    // number of fsyncs so far, for seeing how well writes are being grouped
+    long syncs() {
+        synchronized (lock) {
+            return syncs;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long position;
+        synchronized (lock) {
+            position = appended;
+        }
+        try {
+            awaitDurable(position);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void replay() throws IOException {
+        long size = channel.size();
+        Map<String, ICalendarItem> items = new HashMap<>();
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        ByteBuffer frame = ByteBuffer.allocate(REPLAY_BUFFER);
+        long position = 0;
+        while (position < size) {
+            header.clear();
+            if (!readFully(header, position)) break;
+            int length = header.getInt(0);
+            if (length < 1 || length > size - position - FRAME_HEADER) break;
+            if (frame.capacity() < length) frame = ByteBuffer.allocate(length);
+            frame.clear();
+            frame.limit(length);
+            if (!readFully(frame, position + FRAME_HEADER)) break;
+            frame.flip();
+            crc.reset();
+            crc.update(frame.duplicate());
+            if ((int) crc.getValue() != header.getInt(4)) break;
+            apply(frame, items);
+            position += FRAME_HEADER + length;
+        }
+
+        // only a frame cut short or failing its checksum stops replay early; drop that torn tail so
+        // new frames follow straight on from the last good one
+        if (position < size) channel.truncate(position);
+        channel.position(position);
+        appended = position;
+        durable = position;
+    }
+
+    // fills the buffer from the journal at `position`, or returns false if the file ends first
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) return false;
+        }
+        return true;
+    }
+
+    private void apply(ByteBuffer frame, Map<String, ICalendarItem> items) {
+        byte operation = frame.get();
+        switch (operation) {
+            case ADD:
+                List<Scheduable> added = new ArrayList<>();
+                for (int count = frame.getInt(); count > 0; count--) {
+                    added.add((Scheduable) known(ItemCodec.read(frame), items));
+                }
+                replaying(() -> calendar.addAll(added));
+                break;
+            case REMOVE:
+                Scheduable removed = (Scheduable) items.get(ItemCodec.readString(frame));
+                if (removed != null) replaying(() -> calendar.remove(removed));
+                break;
+            case RESCHEDULE:
+                Scheduable rescheduled = (Scheduable) items.get(ItemCodec.readString(frame));
+                LocalDateTime startsAt = ItemCodec.readDateTime(frame);
+                if (rescheduled != null) replaying(() -> calendar.reschedule(rescheduled, startsAt));
+                break;
+            case EXCEPT:
+                ICalendarItem excepted = items.get(ItemCodec.readString(frame));
+                LocalDateTime occurrence = ItemCodec.readDateTime(frame);
+                if (excepted instanceof RecurringEvent) replaying(() -> calendar.except((RecurringEvent) excepted, occurrence));
+                break;
+            case TODO_ADD:
+                Completable todo = (Completable) known(ItemCodec.read(frame), items);
+                replaying(() -> todoList.add(todo));
+                break;
+            case COMPLETION:
+                for (int count = frame.getInt(); count > 0; count--) {
+                    // items that were never added anywhere have nothing to restore
+                    ItemCodec.readCompletion(frame, (Completable) items.get(ItemCodec.readString(frame)));
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal operation " + operation);
+        }
+    }
+
+    // the object already replayed under this UID, so one item added in two places stays one object
+    private static ICalendarItem known(ICalendarItem item, Map<String, ICalendarItem> items) {
+        ICalendarItem existing = items.putIfAbsent(ItemCodec.uid(item), item);
+        return existing == null ? item : existing;
+    }
+
+    private interface Encoder {
+        void encode(DataOutputStream out) throws IOException;
+    }
+
+    // must hold the lock; returns the journal position the caller has to wait for
+    private long append(byte operation, Encoder encoder) {
+        try {
+            payload.reset();
+            payloadOut.writeByte(operation);
+            encoder.encode(payloadOut);
+            payloadOut.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        crc.reset();
+        crc.update(payload.toByteArray(), 0, payload.size());
+        DataOutputStream frame = new DataOutputStream(pending);
+        try {
+            frame.writeInt(payload.size());
+            frame.writeInt((int) crc.getValue());
+            payload.writeTo(frame);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        appended += FRAME_HEADER + payload.size();
+        return appended;
+    }
+
+    private void awaitDurable(long position) {
+        ByteArrayOutputStream batch;
+        long target;
+        synchronized (lock) {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    if (durable >= position) return;
+                    if (failure != null) throw new UncheckedIOException(failure);
+                    if (!syncing) break;
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) Thread.currentThread().interrupt();
+            }
+            syncing = true;
+            batch = pending;
+            pending = new ByteArrayOutputStream(Math.max(batch.size(), 32));
+            target = appended;
+        }
+
+        IOException error = null;
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(batch.toByteArray());
+            while (bytes.hasRemaining()) channel.write(bytes);
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        }
+
+        synchronized (lock) {
+            syncing = false;
+            syncs++;
+            // a failed write leaves the file in an unknown state, so nothing more is accepted
+            if (error != null) {
+                failure = error;
+            } else {
+                durable = target;
+            }
+            lock.notifyAll();
+        }
+        if (error != null) throw new UncheckedIOException(error);
+    }
+
+    // applies a change without journaling it, for replay
+    private void replaying(Runnable change) {
+        synchronized (lock) {
+            nested = true;
+            try {
+                change.run();
+            } finally {
+                nested = false;
+            }
+        }
+    }
+
+    private static void requireStorable(Object item) {
+        if (!ItemCodec.canWrite(item)) {
+            throw new IllegalArgumentException("Can't journal " + (item == null ? "null" : item.getClass().getName()));
+        }
+    }
+
+    private final class JournaledCalendar extends Calendar {
+
+        @Override
+        public void addSchedulable(Scheduable schedulable) {
+            addAll(Collections.singletonList(schedulable));
+        }
+
+        @Override
+        public void addAll(Collection<? extends Scheduable> items) {
+            items.forEach(Journal::requireStorable);
+            long position;
+            synchronized (lock) {
+                if (nested) {
+                    super.addAll(items);
+                    return;
+                }
+                if (failure != null) throw new UncheckedIOException(failure);
+                super.addAll(items);
+                position = append(ADD, out -> {
+                    out.writeInt(items.size());
+                    for (Scheduable item : items) ItemCodec.write(out, item);
+                });
+            }
+            awaitDurable(position);
+        }
+
+        @Override
+        public boolean remove(Scheduable schedulable) {
+            long position;
+            synchronized (lock) {
+                if (nested) return super.remove(schedulable);
+                if (!(schedulable instanceof ICalendarItem)) return super.remove(schedulable);
+                if (failure != null) throw new UncheckedIOException(failure);
+                if (!super.remove(schedulable)) return false;
+                position = append(REMOVE, out -> ItemCodec.writeString(out, ItemCodec.uid(schedulable)));
+            }
+            awaitDurable(position);
+            return true;
+        }
+
+        @Override
+        public boolean reschedule(Scheduable schedulable, LocalDateTime startsAt) {
+            long position;
+            synchronized (lock) {
+                if (nested) return super.reschedule(schedulable, startsAt);
+                if (failure != null) throw new UncheckedIOException(failure);
+                nested = true;
+                try {
+                    if (!super.reschedule(schedulable, startsAt)) return false;
+                } finally {
+                    nested = false;
+                }
+                position = append(RESCHEDULE, out -> {
+                    ItemCodec.writeString(out, ItemCodec.uid(schedulable));
+                    ItemCodec.writeDateTime(out, startsAt);
+                });
+            }
+            awaitDurable(position);
+            return true;
+        }
+
+        @Override
+        public boolean except(RecurringEvent recurring, LocalDateTime occurrenceStartsAt) {
+            long position;
+            synchronized (lock) {
+                if (nested) return super.except(recurring, occurrenceStartsAt);
+                if (failure != null) throw new UncheckedIOException(failure);
+                if (!super.except(recurring, occurrenceStartsAt)) return false;
+                position = append(EXCEPT, out -> {
+                    ItemCodec.writeString(out, ItemCodec.uid(recurring));
+                    ItemCodec.writeDateTime(out, occurrenceStartsAt);
+                });
+            }
+            awaitDurable(position);
+            return true;
+        }
+    }
+
+    private final class JournaledTodoList extends TodoList {
+
+        @Override
+        public void add(Completable completable) {
+            requireStorable(completable);
+            long position;
+            synchronized (lock) {
+                if (nested) {
+                    super.add(completable);
+                    return;
+                }
+                if (failure != null) throw new UncheckedIOException(failure);
+                super.add(completable);
+                position = append(TODO_ADD, out -> ItemCodec.write(out, completable));
+            }
+            awaitDurable(position);
+        }
+
+        @Override
+        public void markComplete(Completable completable) {
+            changeCompletion(Collections.singletonList(completable), Completable::markComplete);
+        }
+
+        @Override
+        public void markIncomplete(Completable completable) {
+            changeCompletion(Collections.singletonList(completable), Completable::markIncomplete);
+        }
+
+        @Override
+        public void completeAll() {
+            changeCompletion(all(), Completable::markComplete);
+        }
+
+        @Override
+        public void uncompleteAll() {
+            changeCompletion(all(), Completable::markIncomplete);
+        }
+
+        private void changeCompletion(List<Completable> completables, Consumer<Completable> change) {
+            completables.forEach(Journal::requireStorable);
+            long position;
+            synchronized (lock) {
+                if (failure != null) throw new UncheckedIOException(failure);
+                completables.forEach(change);
+                position = append(COMPLETION, out -> {
+                    out.writeInt(completables.size());
+                    for (Completable completable : completables) {
+                        ItemCodec.writeString(out, ItemCodec.uid(completable));
+                        ItemCodec.writeCompletion(out, completable);
+                    }
+                });
+            }
+            awaitDurable(position);
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.galvanize.storage;
+
+import com.galvanize.ICalendarItem;
+import com.galvanize.ItemCodec;
+import com.galvanize.Scheduable;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Read-only store over the columns of a mapped calendar file (see CalendarFile). Searches run on
+// the start time columns in place, and a record is only decoded the first time something reads
+// it, so opening a file costs a header read no matter how many items it holds. Decoded items
+// are kept, so the same record always comes back as the same object.
+public class MappedScheduleStore implements ScheduleStore {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int secondsAt;
+    private final int nanosAt;
+    private final int offsetsAt;
+    private final ConcurrentHashMap<Integer, ICalendarItem> decoded = new ConcurrentHashMap<>();
+
+    MappedScheduleStore(ByteBuffer buffer, int size, int columnsAt) {
+        this.buffer = buffer;
+        this.size = size;
+        this.secondsAt = columnsAt;
+        this.nanosAt = secondsAt + 8 * size;
+        this.offsetsAt = nanosAt + 4 * size;
+    }
+
+    @Override
+    public void add(Scheduable item) {
+        throw new UnsupportedOperationException("This schedule is read-only");
+    }
+
+    @Override
+    public void addAll(Collection<? extends Scheduable> items) {
+        throw new UnsupportedOperationException("This schedule is read-only");
+    }
+
+    @Override
+    public boolean remove(Scheduable item) {
+        throw new UnsupportedOperationException("This schedule is read-only");
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Scheduable> items() {
+        return new ArrayList<>(new Range(0, size));
+    }
+
+    @Override
+    public List<LocalDate> dates() {
+        List<LocalDate> dates = new ArrayList<>();
+        int index = 0;
+        while (index < size) {
+            long day = Math.floorDiv(secondsAt(index), SECONDS_PER_DAY);
+            dates.add(LocalDate.ofEpochDay(day));
+            index = lowerBound((day + 1) * SECONDS_PER_DAY, 0);
+        }
+        return dates;
+    }
+
+    @Override
+    public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+        int fromIndex = lowerBound(from.toEpochSecond(ZoneOffset.UTC), from.getNano());
+        int toIndex = lowerBound(to.toEpochSecond(ZoneOffset.UTC), to.getNano());
+        return new Range(fromIndex, Math.max(fromIndex, toIndex));
+    }
+
+    @Override
+    public LocalDateTime getFirstDateTime() {
+        return size == 0 ? null : dateTimeAt(0);
+    }
+
+    @Override
+    public LocalDateTime getLastDateTime() {
+        return size == 0 ? null : dateTimeAt(size - 1);
+    }
+
+    @Override
+    public ScheduleStore snapshot() {
+        return this;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    // the record at this absolute position in the file, decoded once
+    ICalendarItem record(int offset) {
+        return decoded.computeIfAbsent(offset, position -> {
+            ByteBuffer record = buffer.duplicate();
+            record.position(position);
+            return ItemCodec.read(record);
+        });
+    }
+
+    private Scheduable itemAt(int index) {
+        return (Scheduable) record(buffer.getInt(offsetsAt + 4 * index));
+    }
+
+    private long secondsAt(int index) {
+        return buffer.getLong(secondsAt + 8 * index);
+    }
+
+    private int nanosAt(int index) {
+        return buffer.getInt(nanosAt + 4 * index);
+    }
+
+    private LocalDateTime dateTimeAt(int index) {
+        return LocalDateTime.ofEpochSecond(secondsAt(index), nanosAt(index), ZoneOffset.UTC);
+    }
+
+    // first index whose start is >= the given instant
+    private int lowerBound(long second, int nano) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long middleSecond = secondsAt(middle);
+            if (middleSecond < second || (middleSecond == second && nanosAt(middle) < nano)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private final class Range extends AbstractList<Scheduable> {
+
+        private final int fromIndex;
+        private final int toIndex;
+
+        private Range(int fromIndex, int toIndex) {
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        public Scheduable get(int index) {
+            if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            return itemAt(fromIndex + index);
+        }
+
+        @Override
+        public int size() {
+            return toIndex - fromIndex;
+        }
+    }
+
+}
@@ -0,0 +1,301 @@
+package com.galvanize.storage;
+
+import com.galvanize.Scheduable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Immutable AVL tree of items by start time. A change copies only the nodes on the path it
+// touches (O(log n) new nodes) and shares the rest with the previous version, so snapshot()
+// just hands out the current root and costs O(1). Writers take the store's lock; readers never
+// do, and always see a complete version. Every node knows its subtree size, so counting the
+// items in a range is two O(log n) descents rather than a walk.
+public class PersistentScheduleStore implements ScheduleStore {
+
+    private volatile Node root;
+    private long sequence;
+    private final boolean readOnly;
+
+    public PersistentScheduleStore() {
+        this(null, false);
+    }
+
+    private PersistentScheduleStore(Node root, boolean readOnly) {
+        this.root = root;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public synchronized void add(Scheduable item) {
+        ensureWritable();
+        root = insert(root, new Slot(item.getStartTime(), sequence++), item);
+    }
+
+    @Override
+    public synchronized void addAll(Collection<? extends Scheduable> items) {
+        ensureWritable();
+        List<Scheduable> sorted = new ArrayList<>(items);
+        sorted.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        Node updated = root;
+        for (Scheduable item : sorted) {
+            updated = insert(updated, new Slot(item.getStartTime(), sequence++), item);
+        }
+        root = updated;
+    }
+
+    @Override
+    public synchronized boolean remove(Scheduable item) {
+        ensureWritable();
+        LocalDateTime startsAt = item.getStartTime();
+        for (Iterator<Node> nodes = nodesFrom(root, Slot.first(startsAt)); nodes.hasNext(); ) {
+            Node node = nodes.next();
+            if (!node.slot.getStartsAt().equals(startsAt)) return false;
+            if (node.item == item) {
+                root = delete(root, node.slot);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public List<Scheduable> items() {
+        Node current = root;
+        List<Scheduable> items = new ArrayList<>(size(current));
+        for (Iterator<Node> nodes = nodesFrom(current, null); nodes.hasNext(); ) {
+            items.add(nodes.next().item);
+        }
+        return items;
+    }
+
+    @Override
+    public List<LocalDate> dates() {
+        Node current = root;
+        List<LocalDate> dates = new ArrayList<>();
+        Node node = ceiling(current, null);
+        while (node != null) {
+            LocalDate date = node.slot.getStartsAt().toLocalDate();
+            dates.add(date);
+            node = ceiling(current, Slot.first(date.plusDays(1).atStartOfDay()));
+        }
+        return dates;
+    }
+
+    // each iteration walks the version current when it starts
+    @Override
+    public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+        Slot lower = Slot.first(from);
+        Slot upper = Slot.first(to);
+        return new AbstractCollection<Scheduable>() {
+            @Override
+            public Iterator<Scheduable> iterator() {
+                Iterator<Node> nodes = nodesFrom(root, lower);
+                return new Iterator<Scheduable>() {
+                    private Node next = advance();
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public Scheduable next() {
+                        if (next == null) throw new NoSuchElementException();
+                        Scheduable item = next.item;
+                        next = advance();
+                        return item;
+                    }
+
+                    private Node advance() {
+                        if (!nodes.hasNext()) return null;
+                        Node node = nodes.next();
+                        return node.slot.compareTo(upper) < 0 ? node : null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                Node current = root;
+                return Math.max(0, rank(current, upper) - rank(current, lower));
+            }
+        };
+    }
+
+    @Override
+    public LocalDateTime getFirstDateTime() {
+        Node node = root;
+        if (node == null) return null;
+        while (node.left != null) node = node.left;
+        return node.slot.getStartsAt();
+    }
+
+    @Override
+    public LocalDateTime getLastDateTime() {
+        Node node = root;
+        if (node == null) return null;
+        while (node.right != null) node = node.right;
+        return node.slot.getStartsAt();
+    }
+
+    @Override
+    public ScheduleStore snapshot() {
+        return readOnly ? this : new PersistentScheduleStore(root, true);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    private void ensureWritable() {
+        if (readOnly) throw new UnsupportedOperationException("This schedule is read-only");
+    }
+
+    // number of slots below `slot`
+    private static int rank(Node node, Slot slot) {
+        int rank = 0;
+        while (node != null) {
+            if (node.slot.compareTo(slot) < 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    // first node at or after `slot` (or the very first when slot is null)
+    private static Node ceiling(Node node, Slot slot) {
+        Node found = null;
+        while (node != null) {
+            if (slot == null || node.slot.compareTo(slot) >= 0) {
+                found = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return found;
+    }
+
+    // in-order walk starting at the first node at or after `slot`
+    private static Iterator<Node> nodesFrom(Node root, Slot slot) {
+        Deque<Node> path = new ArrayDeque<>();
+        for (Node node = root; node != null; ) {
+            if (slot == null || node.slot.compareTo(slot) >= 0) {
+                path.push(node);
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return new Iterator<Node>() {
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public Node next() {
+                if (path.isEmpty()) throw new NoSuchElementException();
+                Node node = path.pop();
+                for (Node next = node.right; next != null; next = next.left) path.push(next);
+                return node;
+            }
+        };
+    }
+
+    private static Node insert(Node node, Slot slot, Scheduable item) {
+        if (node == null) return new Node(slot, item, null, null);
+        if (slot.compareTo(node.slot) < 0) return balance(node.withLeft(insert(node.left, slot, item)));
+        return balance(node.withRight(insert(node.right, slot, item)));
+    }
+
+    private static Node delete(Node node, Slot slot) {
+        if (node == null) return null;
+        int comparison = slot.compareTo(node.slot);
+        if (comparison < 0) return balance(node.withLeft(delete(node.left, slot)));
+        if (comparison > 0) return balance(node.withRight(delete(node.right, slot)));
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        return balance(new Node(successor.slot, successor.item, node.left, delete(node.right, successor.slot)));
+    }
+
+    private static Node balance(Node node) {
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            Node left = node.left;
+            if (height(left.left) < height(left.right)) left = rotateLeft(left);
+            return rotateRight(node.withLeft(left));
+        }
+        if (factor < -1) {
+            Node right = node.right;
+            if (height(right.right) < height(right.left)) right = rotateRight(right);
+            return rotateLeft(node.withRight(right));
+        }
+        return node;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        return pivot.withLeft(node.withRight(pivot.left));
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        return pivot.withRight(node.withLeft(pivot.right));
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+
+        private final Slot slot;
+        private final Scheduable item;
+        private final Node left;
+        private final Node right;
+        private final int height;
+        private final int size;
+
+        private Node(Slot slot, Scheduable item, Node left, Node right) {
+            this.slot = slot;
+            this.item = item;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        private Node withLeft(Node left) {
+            return new Node(slot, item, left, right);
+        }
+
+        private Node withRight(Node right) {
+            return new Node(slot, item, left, right);
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.galvanize.storage;
+
+import com.galvanize.Scheduable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ScheduleStore {
+
+    void add(Scheduable item);
+
+    void addAll(Collection<? extends Scheduable> items);
+
+    // removes one occurrence of this exact item, found by its current start time
+    boolean remove(Scheduable item);
+
+    int size();
+
+    List<Scheduable> items();
+
+    List<LocalDate> dates();
+
+    // Items starting in [from, to), as a read-only live view rather than a copy: every iteration,
+    // and every size(), reads the store as it stands at that moment. Changing the store in the
+    // middle of one iteration isn't supported; stores built for concurrent writers carry on
+    // weakly consistently, the others may throw ConcurrentModificationException.
+    Collection<Scheduable> between(LocalDateTime from, LocalDateTime to);
+
+    LocalDateTime getFirstDateTime();
+
+    LocalDateTime getLastDateTime();
+
+    // a read-only store that keeps returning what this one holds right now
+    ScheduleStore snapshot();
+
+    default boolean isReadOnly() {
+        return false;
+    }
+
+    // whether some write has returned, or is under way, without readers seeing it yet; only
+    // stores that publish writes after they land ever say so
+    default boolean hasUnpublishedWrites() {
+        return false;
+    }
+
+}
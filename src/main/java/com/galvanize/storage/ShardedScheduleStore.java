@@ -0,0 +1,292 @@
+package com.galvanize.storage;
+
+import com.galvanize.Scheduable;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Splits items into one persistent store per time bucket (a month unless told otherwise). Writes
+// to a bucket are serialized by that bucket's store, so writes landing in different buckets never
+// wait on each other, and reads never lock at all: each bucket hands out complete versions. A
+// bucket emptied by a removal is dropped, which briefly holds up the other writers.
+// items() and dates() fan out over a fork/join pool, one task per bucket, and join the results in
+// bucket order, which is start time order. between() is a live view whose iterators fan out the
+// same way, a pool's worth of touched buckets at a time, so only that many buckets' ranges are
+// held at once. A read spanning buckets is consistent per bucket, not across them, so callers
+// that need one consistent picture should read a snapshot(), which pins every bucket's current
+// version.
+public class ShardedScheduleStore implements ScheduleStore {
+
+    private final ChronoUnit bucket;
+    private final ForkJoinPool pool;
+    private final ConcurrentSkipListMap<LocalDate, ScheduleStore> shards = new ConcurrentSkipListMap<>();
+    private final boolean readOnly;
+    // shared by writers, taken alone to drop an empty bucket so no write lands in one being dropped
+    private final ReadWriteLock pruning = new ReentrantReadWriteLock();
+
+    public ShardedScheduleStore() {
+        this(ChronoUnit.MONTHS);
+    }
+
+    public ShardedScheduleStore(ChronoUnit bucket) {
+        this(bucket, ForkJoinPool.commonPool());
+    }
+
+    public ShardedScheduleStore(ChronoUnit bucket, ForkJoinPool pool) {
+        this(bucket, pool, false);
+    }
+
+    private ShardedScheduleStore(ChronoUnit bucket, ForkJoinPool pool, boolean readOnly) {
+        if (bucket != ChronoUnit.DAYS && bucket != ChronoUnit.WEEKS && bucket != ChronoUnit.MONTHS && bucket != ChronoUnit.YEARS) {
+            throw new IllegalArgumentException("Items can only be bucketed by days, weeks, months or years");
+        }
+        this.bucket = bucket;
+        this.pool = pool;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public void add(Scheduable item) {
+        ensureWritable();
+        pruning.readLock().lock();
+        try {
+            shardFor(item.getStartTime()).add(item);
+        } finally {
+            pruning.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAll(Collection<? extends Scheduable> items) {
+        ensureWritable();
+        Map<LocalDate, List<Scheduable>> batches = new TreeMap<>();
+        for (Scheduable item : items) {
+            batches.computeIfAbsent(bucketOf(item.getStartTime()), key -> new ArrayList<>()).add(item);
+        }
+        List<Map.Entry<LocalDate, List<Scheduable>>> entries = new ArrayList<>(batches.entrySet());
+        pruning.readLock().lock();
+        try {
+            fanOut(entries.size(), index -> {
+                Map.Entry<LocalDate, List<Scheduable>> batch = entries.get(index);
+                shardFor(batch.getKey()).addAll(batch.getValue());
+            });
+        } finally {
+            pruning.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Scheduable item) {
+        ensureWritable();
+        LocalDate key = bucketOf(item.getStartTime());
+        ScheduleStore shard;
+        pruning.readLock().lock();
+        try {
+            shard = shards.get(key);
+            if (shard == null || !shard.remove(item)) return false;
+        } finally {
+            pruning.readLock().unlock();
+        }
+        if (shard.size() == 0) {
+            pruning.writeLock().lock();
+            try {
+                if (shard.size() == 0) shards.remove(key, shard);
+            } finally {
+                pruning.writeLock().unlock();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (ScheduleStore shard : shards.values()) size += shard.size();
+        return size;
+    }
+
+    @Override
+    public List<Scheduable> items() {
+        return gather(shards.values(), ScheduleStore::items);
+    }
+
+    @Override
+    public List<LocalDate> dates() {
+        return gather(shards.values(), ScheduleStore::dates);
+    }
+
+    @Override
+    public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) return Collections.emptyList();
+        Collection<ScheduleStore> touched = shards.subMap(bucketOf(from), true, bucketOf(to), true).values();
+        return new AbstractCollection<Scheduable>() {
+            @Override
+            public Iterator<Scheduable> iterator() {
+                List<ScheduleStore> targets = new ArrayList<>(touched);
+                int batch = Math.max(1, pool.getParallelism());
+                return new Iterator<Scheduable>() {
+                    private int next;
+                    private Iterator<Scheduable> current = Collections.emptyIterator();
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!current.hasNext() && next < targets.size()) {
+                            List<ScheduleStore> group = targets.subList(next, Math.min(targets.size(), next + batch));
+                            next += group.size();
+                            // one bucket is walked in place; several are read side by side
+                            current = group.size() == 1
+                                    ? group.get(0).between(from, to).iterator()
+                                    : gather(group, shard -> new ArrayList<>(shard.between(from, to))).iterator();
+                        }
+                        return current.hasNext();
+                    }
+
+                    @Override
+                    public Scheduable next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return current.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (ScheduleStore shard : touched) size += shard.between(from, to).size();
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public LocalDateTime getFirstDateTime() {
+        for (ScheduleStore shard : shards.values()) {
+            LocalDateTime first = shard.getFirstDateTime();
+            if (first != null) return first;
+        }
+        return null;
+    }
+
+    @Override
+    public LocalDateTime getLastDateTime() {
+        for (ScheduleStore shard : shards.descendingMap().values()) {
+            LocalDateTime last = shard.getLastDateTime();
+            if (last != null) return last;
+        }
+        return null;
+    }
+
+    // each bucket is pinned as it stands when the snapshot reaches it, at O(1) a bucket
+    @Override
+    public ScheduleStore snapshot() {
+        if (readOnly) return this;
+        ShardedScheduleStore snapshot = new ShardedScheduleStore(bucket, pool, true);
+        for (Map.Entry<LocalDate, ScheduleStore> entry : shards.entrySet()) {
+            snapshot.shards.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshot;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    int buckets() {
+        return shards.size();
+    }
+
+    private void ensureWritable() {
+        if (readOnly) throw new UnsupportedOperationException("This schedule is read-only");
+    }
+
+    private ScheduleStore shardFor(LocalDateTime dateTime) {
+        return shardFor(bucketOf(dateTime));
+    }
+
+    private ScheduleStore shardFor(LocalDate key) {
+        return shards.computeIfAbsent(key, ignored -> new PersistentScheduleStore());
+    }
+
+    private LocalDate bucketOf(LocalDateTime dateTime) {
+        LocalDate date = dateTime.toLocalDate();
+        switch (bucket) {
+            case DAYS:
+                return date;
+            case WEEKS:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHS:
+                return date.withDayOfMonth(1);
+            default:
+                return date.withDayOfYear(1);
+        }
+    }
+
+    // runs the query on every shard, in parallel when there is more than one, and joins the results in order
+    private <T> List<T> gather(Collection<ScheduleStore> touched, Function<ScheduleStore, List<T>> query) {
+        List<ScheduleStore> targets = new ArrayList<>(touched);
+        List<List<T>> results = new ArrayList<>(Collections.nCopies(targets.size(), null));
+        fanOut(targets.size(), index -> results.set(index, query.apply(targets.get(index))));
+        int size = 0;
+        for (List<T> result : results) size += result.size();
+        List<T> joined = new ArrayList<>(size);
+        results.forEach(joined::addAll);
+        return joined;
+    }
+
+    private void fanOut(int tasks, IndexedTask task) {
+        if (tasks == 1) {
+            task.run(0);
+        } else if (tasks > 1) {
+            pool.invoke(new FanOut(task, 0, tasks));
+        }
+    }
+
+    private interface IndexedTask {
+        void run(int index);
+    }
+
+    private static final class FanOut extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IndexedTask task;
+        private final int from;
+        private final int to;
+
+        private FanOut(IndexedTask task, int from, int to) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                task.run(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FanOut(task, from, middle), new FanOut(task, middle, to));
+        }
+    }
+
+}
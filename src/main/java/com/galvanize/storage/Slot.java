@@ -0,0 +1,35 @@
+package com.galvanize.storage;
+
+import java.time.LocalDateTime;
+
+// start time plus an insertion sequence, so items that start at the same moment
+// keep the order they were added in
+final class Slot implements Comparable<Slot> {
+
+    private final LocalDateTime startsAt;
+    private final long sequence;
+
+    Slot(LocalDateTime startsAt, long sequence) {
+        this.startsAt = startsAt;
+        this.sequence = sequence;
+    }
+
+    static Slot first(LocalDateTime startsAt) {
+        return new Slot(startsAt, Long.MIN_VALUE);
+    }
+
+    LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public int compareTo(Slot other) {
+        int result = startsAt.compareTo(other.startsAt);
+        return result != 0 ? result : Long.compare(sequence, other.sequence);
+    }
+
+}
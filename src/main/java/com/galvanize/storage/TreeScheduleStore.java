@@ -0,0 +1,225 @@
+package com.galvanize.storage;
+
+import com.galvanize.Scheduable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class TreeScheduleStore implements ScheduleStore {
+
+    // replaced wholesale by addAll's rebuild, so views look it up each time they are read
+    private NavigableMap<Slot, Scheduable> schedulables = new TreeMap<>();
+    private final NavigableMap<LocalDate, Integer> days = new TreeMap<>();
+    private long sequence;
+
+    private LocalDateTime firstDateTime;
+    private LocalDateTime lastDateTime;
+
+    @Override
+    public void add(Scheduable item) {
+        LocalDateTime dateTime = item.getStartTime();
+        schedulables.put(new Slot(dateTime, sequence++), item);
+        days.merge(dateTime.toLocalDate(), 1, Integer::sum);
+        if (firstDateTime == null || dateTime.isBefore(firstDateTime)) firstDateTime = dateTime;
+        if (lastDateTime == null || !dateTime.isBefore(lastDateTime)) lastDateTime = dateTime;
+    }
+
+    // Sorts the batch once, merges it with what is already stored, and builds a new tree from the
+    // merged run with TreeMap's sorted-map constructor, which takes linear time. A batch too small
+    // to pay for rebuilding the whole tree is inserted item by item instead.
+    @Override
+    public void addAll(Collection<? extends Scheduable> items) {
+        if (items.isEmpty()) return;
+        List<Scheduable> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(Scheduable::getStartTime));
+        int stored = schedulables.size();
+        if (stored > 0 && (long) sorted.size() * (64 - Long.numberOfLeadingZeros(stored)) < stored) {
+            sorted.forEach(this::add);
+            return;
+        }
+
+        List<Map.Entry<Slot, Scheduable>> run = new ArrayList<>(stored + sorted.size());
+        Iterator<Map.Entry<Slot, Scheduable>> existing = schedulables.entrySet().iterator();
+        Map.Entry<Slot, Scheduable> next = existing.hasNext() ? existing.next() : null;
+        for (Scheduable item : sorted) {
+            LocalDateTime dateTime = item.getStartTime();
+            // stored items were added earlier, so they go first among equal start times
+            while (next != null && !next.getKey().getStartsAt().isAfter(dateTime)) {
+                run.add(next);
+                next = existing.hasNext() ? existing.next() : null;
+            }
+            run.add(new AbstractMap.SimpleImmutableEntry<>(new Slot(dateTime, sequence++), item));
+            days.merge(dateTime.toLocalDate(), 1, Integer::sum);
+        }
+        while (next != null) {
+            run.add(next);
+            next = existing.hasNext() ? existing.next() : null;
+        }
+
+        schedulables = new TreeMap<>(new SortedRun(run));
+        firstDateTime = schedulables.firstKey().getStartsAt();
+        lastDateTime = schedulables.lastKey().getStartsAt();
+    }
+
+    @Override
+    public boolean remove(Scheduable item) {
+        LocalDateTime dateTime = item.getStartTime();
+        Iterator<Scheduable> candidates = schedulables
+                .subMap(Slot.first(dateTime), true, new Slot(dateTime, Long.MAX_VALUE), true)
+                .values()
+                .iterator();
+        while (candidates.hasNext()) {
+            if (candidates.next() != item) continue;
+            candidates.remove();
+            days.computeIfPresent(dateTime.toLocalDate(), (date, count) -> count == 1 ? null : count - 1);
+            if (schedulables.isEmpty()) {
+                firstDateTime = null;
+                lastDateTime = null;
+            } else {
+                firstDateTime = schedulables.firstKey().getStartsAt();
+                lastDateTime = schedulables.lastKey().getStartsAt();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return schedulables.size();
+    }
+
+    @Override
+    public List<Scheduable> items() {
+        return new ArrayList<>(schedulables.values());
+    }
+
+    @Override
+    public List<LocalDate> dates() {
+        return new ArrayList<>(days.keySet());
+    }
+
+    @Override
+    public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) return Collections.emptyList();
+        return new AbstractCollection<Scheduable>() {
+            @Override
+            public Iterator<Scheduable> iterator() {
+                return Collections.unmodifiableCollection(range()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return range().size();
+            }
+
+            private Collection<Scheduable> range() {
+                return schedulables.subMap(Slot.first(from), true, Slot.first(to), false).values();
+            }
+        };
+    }
+
+    @Override
+    public LocalDateTime getFirstDateTime() {
+        return firstDateTime;
+    }
+
+    @Override
+    public LocalDateTime getLastDateTime() {
+        return lastDateTime;
+    }
+
+    @Override
+    public ScheduleStore snapshot() {
+        return ColumnarScheduleStore.readOnlyCopyOf(schedulables.values());
+    }
+
+    // Entries already in slot order, read-only, as a SortedMap for TreeMap's constructor to copy.
+    private static final class SortedRun extends AbstractMap<Slot, Scheduable> implements SortedMap<Slot, Scheduable> {
+
+        private final List<Map.Entry<Slot, Scheduable>> entries;
+
+        private SortedRun(List<Map.Entry<Slot, Scheduable>> entries) {
+            this.entries = Collections.unmodifiableList(entries);
+        }
+
+        @Override
+        public Set<Map.Entry<Slot, Scheduable>> entrySet() {
+            return new AbstractSet<Map.Entry<Slot, Scheduable>>() {
+                @Override
+                public Iterator<Map.Entry<Slot, Scheduable>> iterator() {
+                    return entries.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return entries.size();
+                }
+            };
+        }
+
+        @Override
+        public Comparator<? super Slot> comparator() {
+            return null;
+        }
+
+        @Override
+        public Slot firstKey() {
+            if (entries.isEmpty()) throw new NoSuchElementException();
+            return entries.get(0).getKey();
+        }
+
+        @Override
+        public Slot lastKey() {
+            if (entries.isEmpty()) throw new NoSuchElementException();
+            return entries.get(entries.size() - 1).getKey();
+        }
+
+        @Override
+        public SortedMap<Slot, Scheduable> subMap(Slot fromKey, Slot toKey) {
+            if (fromKey.compareTo(toKey) > 0) throw new IllegalArgumentException("fromKey > toKey");
+            return new SortedRun(entries.subList(indexOf(fromKey), indexOf(toKey)));
+        }
+
+        @Override
+        public SortedMap<Slot, Scheduable> headMap(Slot toKey) {
+            return new SortedRun(entries.subList(0, indexOf(toKey)));
+        }
+
+        @Override
+        public SortedMap<Slot, Scheduable> tailMap(Slot fromKey) {
+            return new SortedRun(entries.subList(indexOf(fromKey), entries.size()));
+        }
+
+        // where the first entry at or after key is
+        private int indexOf(Slot key) {
+            int low = 0;
+            int high = entries.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (entries.get(middle).getKey().compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+}
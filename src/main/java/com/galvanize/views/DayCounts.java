@@ -0,0 +1,27 @@
+package com.galvanize.views;
+
+import com.galvanize.Calendar;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+// how many items start on each day
+public class DayCounts extends StartTimeView {
+
+    private final ConcurrentHashMap<LocalDate, Integer> counts = new ConcurrentHashMap<>();
+
+    public static DayCounts of(Calendar calendar) {
+        return attach(calendar, new DayCounts());
+    }
+
+    public int countOn(LocalDate date) {
+        return counts.getOrDefault(date, 0);
+    }
+
+    @Override
+    void count(LocalDateTime startsAt, int change) {
+        adjust(counts, startsAt.toLocalDate(), change);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.galvanize.views;
+
+import com.galvanize.Calendar;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// the days with at least one item on them, in order
+public class OccupiedDays extends StartTimeView {
+
+    private final ConcurrentSkipListMap<LocalDate, Integer> counts = new ConcurrentSkipListMap<>();
+    private final NavigableSet<LocalDate> days = Collections.unmodifiableNavigableSet(counts.keySet());
+
+    public static OccupiedDays of(Calendar calendar) {
+        return attach(calendar, new OccupiedDays());
+    }
+
+    // a live view that follows the calendar, not a copy
+    public NavigableSet<LocalDate> days() {
+        return days;
+    }
+
+    public boolean isOccupied(LocalDate date) {
+        return counts.containsKey(date);
+    }
+
+    @Override
+    void count(LocalDateTime startsAt, int change) {
+        adjust(counts, startsAt.toLocalDate(), change);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.galvanize.views;
+
+import com.galvanize.Calendar;
+import com.galvanize.CalendarListener;
+import com.galvanize.Recurring;
+import com.galvanize.Scheduable;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// A view kept up to date from a calendar's change events, counting items by start time.
+// Recurring series are left out, since the calendar only expands them inside the window being
+// read. Views should be attached before other threads start writing to the calendar, or a
+// change racing the attach can be counted twice or missed.
+abstract class StartTimeView implements CalendarListener {
+
+    static <T extends StartTimeView> T attach(Calendar calendar, T view) {
+        for (Scheduable item : calendar.items()) view.added(item);
+        calendar.addListener(view);
+        return view;
+    }
+
+    abstract void count(LocalDateTime startsAt, int change);
+
+    // adds change to key's count, dropping keys whose count comes to zero
+    static <K> void adjust(Map<K, Integer> counts, K key, int change) {
+        counts.compute(key, (ignored, count) -> {
+            int updated = (count == null ? 0 : count) + change;
+            return updated == 0 ? null : updated;
+        });
+    }
+
+    @Override
+    public void added(Scheduable item) {
+        if (!(item instanceof Recurring)) count(item.getStartTime(), 1);
+    }
+
+    @Override
+    public void removed(Scheduable item) {
+        if (!(item instanceof Recurring)) count(item.getStartTime(), -1);
+    }
+
+    @Override
+    public void rescheduled(Scheduable item, LocalDateTime previousStart) {
+        if (item instanceof Recurring) return;
+        count(previousStart, -1);
+        count(item.getStartTime(), 1);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.galvanize.views;
+
+import com.galvanize.Calendar;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// the earliest and latest start times, kept ready so reading them never searches
+public class TimeBounds extends StartTimeView {
+
+    private final NavigableMap<LocalDateTime, Integer> starts = new TreeMap<>();
+    private volatile LocalDateTime first;
+    private volatile LocalDateTime last;
+
+    public static TimeBounds of(Calendar calendar) {
+        return attach(calendar, new TimeBounds());
+    }
+
+    public LocalDateTime getFirstDateTime() {
+        return first;
+    }
+
+    public LocalDateTime getLastDateTime() {
+        return last;
+    }
+
+    @Override
+    synchronized void count(LocalDateTime startsAt, int change) {
+        adjust(starts, startsAt, change);
+        Map.Entry<LocalDateTime, Integer> firstEntry = starts.firstEntry();
+        Map.Entry<LocalDateTime, Integer> lastEntry = starts.lastEntry();
+        first = firstEntry == null ? null : firstEntry.getKey();
+        last = lastEntry == null ? null : lastEntry.getKey();
+    }
+
+}
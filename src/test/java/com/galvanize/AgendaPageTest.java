@@ -0,0 +1,112 @@
+package com.galvanize;
+
+import com.galvanize.storage.ConcurrentScheduleStore;
+import com.galvanize.storage.ShardedScheduleStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AgendaPageTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2017, 1, 2, 9, 0);
+
+    @Test
+    public void itPagesForwardThroughEverythingAfterATime() {
+        Calendar calendar = new Calendar(new ShardedScheduleStore());
+        List<Scheduable> expected = new ArrayList<>();
+        calendar.addSchedulable(new Reminder("Yesterday", NOW.minusDays(1)));
+        for (int i = 0; i < 50; i++) {
+            // bunches of five starting together, with a gap of years halfway through
+            LocalDateTime startsAt = NOW.plusHours(i / 5).plusYears(i < 25 ? 0 : 3);
+            Event event = new Event("Event " + i, startsAt, Duration.ofMinutes(30));
+            calendar.addSchedulable(event);
+            expected.add(event);
+        }
+
+        List<Scheduable> seen = new ArrayList<>();
+        AgendaPage page = calendar.agenda(NOW, 7);
+        seen.addAll(page.getItems());
+        while (page.hasMore()) {
+            assertEquals(7, page.getItems().size());
+            page = calendar.agenda(page.getNextCursor(), 7);
+            seen.addAll(page.getItems());
+        }
+
+        assertEquals(expected, seen);
+        assertTrue(calendar.agenda(page.getNextCursor(), 7).getItems().isEmpty());
+        assertEquals(page.getNextCursor(), calendar.agenda(page.getNextCursor(), 7).getNextCursor());
+    }
+
+    @Test
+    public void itIncludesRecurringOccurrences() {
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(new RecurringEvent("Standup", NOW.minusDays(30), Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.DAILY, 1)));
+        calendar.addSchedulable(new Reminder("Call the bank", NOW.plusDays(1)));
+
+        AgendaPage first = calendar.agenda(NOW.plusMinutes(1), 2);
+        AgendaPage second = calendar.agenda(first.getNextCursor(), 2);
+
+        assertEquals(Arrays.asList(NOW.plusDays(1), NOW.plusDays(1)), startTimes(first));
+        assertTrue(first.getItems().get(0) instanceof Reminder);
+        assertEquals(Arrays.asList(NOW.plusDays(2), NOW.plusDays(3)), startTimes(second));
+        assertTrue(second.hasMore());
+    }
+
+    @Test
+    public void itPicksUpItemsAddedBetweenPages() {
+        Calendar calendar = new Calendar(new ConcurrentScheduleStore());
+        Reminder first = new Reminder("First", NOW);
+        Reminder second = new Reminder("Second", NOW);
+        Reminder later = new Reminder("Later", NOW.plusHours(2));
+        calendar.addAll(Arrays.asList(first, second, later));
+
+        AgendaPage page = calendar.agenda(NOW, 2);
+        assertEquals(Arrays.asList(first, second), page.getItems());
+
+        Reminder tied = new Reminder("Tied", NOW);
+        Reminder between = new Reminder("Between", NOW.plusHours(1));
+        Reminder missed = new Reminder("Missed", NOW.minusHours(1));
+        calendar.addAll(Arrays.asList(tied, between, missed));
+
+        page = calendar.agenda(page.getNextCursor(), 10);
+        assertEquals(Arrays.asList(tied, between, later), page.getItems());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void itRejectsCursorsItDidNotHandOut() {
+        Calendar calendar = new Calendar();
+        assertThrows(IllegalArgumentException.class, () -> calendar.agenda("not a cursor", 10));
+        // well formed, but out of LocalDateTime's range
+        assertThrows(IllegalArgumentException.class, () -> calendar.agenda(cursor(Long.MAX_VALUE, 0, 0), 10));
+        assertThrows(IllegalArgumentException.class, () -> calendar.agenda(cursor(0, 1_000_000_000, 0), 10));
+        assertThrows(IllegalArgumentException.class, () -> calendar.agenda(cursor(0, 0, -1), 10));
+        assertTrue(calendar.agenda(cursor(0, 0, 0), 10).getItems().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> calendar.agenda(NOW, 0));
+        assertTrue(calendar.agenda(NOW, 10).getItems().isEmpty());
+    }
+
+    private static String cursor(long second, int nano, int skip) {
+        ByteBuffer bytes = ByteBuffer.allocate(16).putLong(second).putInt(nano).putInt(skip);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    private static List<LocalDateTime> startTimes(AgendaPage page) {
+        List<LocalDateTime> startTimes = new ArrayList<>();
+        for (Scheduable item : page.getItems()) startTimes.add(item.getStartTime());
+        return startTimes;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.galvanize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Not a test: run with `java -Xmx3g -cp <test classpath> com.galvanize.AvailabilityBenchmark`.
+// Times FreeBusy.firstFree across many busy calendars.
+public class AvailabilityBenchmark {
+
+    private static final int CALENDARS = 24;
+    private static final int ITEMS = 100_000;
+    private static final int SEARCHES = 200;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        LocalDateTime start = LocalDateTime.of(2017, 1, 1, 0, 0);
+        int minutes = 40 * 365 * 24 * 60;
+        List<Calendar> calendars = new ArrayList<>();
+        for (int c = 0; c < CALENDARS; c++) {
+            List<Scheduable> items = new ArrayList<>(ITEMS);
+            for (int i = 0; i < ITEMS; i++) {
+                items.add(new Event("Event " + i, start.plusMinutes(random.nextInt(minutes)), Duration.ofMinutes(15 + random.nextInt(4) * 15)));
+            }
+            Calendar calendar = new Calendar();
+            calendar.addAll(items);
+            calendars.add(calendar);
+        }
+        FreeBusy freeBusy = new FreeBusy(calendars);
+
+        for (int round = 0; round < 3; round++) {
+            long found = 0;
+            long started = System.nanoTime();
+            for (int i = 0; i < SEARCHES; i++) {
+                LocalDateTime from = start.plusMinutes(random.nextInt(minutes - 60 * 24 * 30));
+                found += freeBusy.firstFree(5, Duration.ofMinutes(30), from, from.plusDays(30)).size();
+            }
+            long elapsed = System.nanoTime() - started;
+            System.out.printf("round %d: %d calendars x %,d items, first 5 free 30 minute slots: %,d us/search (%d found)%n",
+                    round + 1, CALENDARS, ITEMS, elapsed / 1000 / SEARCHES, found);
+        }
+    }
+
+}
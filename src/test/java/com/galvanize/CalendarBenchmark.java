@@ -0,0 +1,68 @@
+package com.galvanize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toList;
+
+// Not a test: run with `java -cp <test classpath> com.galvanize.CalendarBenchmark`.
+// Compares the day-indexed Calendar lookups against the full scans they replaced.
+public class CalendarBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int SAMPLED_DAYS = 20;
+
+    public static void main(String[] args) {
+        Calendar calendar = new Calendar();
+        List<Scheduable> items = new ArrayList<>(ITEMS);
+        LocalDateTime start = LocalDateTime.of(2017, 1, 1, 0, 0);
+        Duration duration = Duration.ofMinutes(30);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Event("Event " + i, start.plusMinutes(i * 97L % (3 * 365 * 24 * 60)), duration));
+        }
+        calendar.addAll(items);
+        List<Scheduable> all = calendar.items();
+        List<LocalDate> sample = calendar.dates().subList(0, SAMPLED_DAYS);
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d (%,d items, %,d days)%n", round + 1, ITEMS, calendar.dates().size());
+            time("  dates() indexed", () -> calendar.dates().size());
+            time("  dates() scan", () -> all.stream()
+                    .map(item -> item.getStartTime().toLocalDate())
+                    .distinct()
+                    .count());
+            time("  descriptionsFor() indexed, per day", () -> {
+                int total = 0;
+                for (LocalDate date : sample) total += calendar.descriptionsFor(date).size();
+                return total;
+            }, SAMPLED_DAYS);
+            time("  descriptionsFor() scan, per day", () -> {
+                int total = 0;
+                for (LocalDate date : sample) {
+                    total += all.stream()
+                            .filter(item -> item.getStartTime().toLocalDate().equals(date))
+                            .map(Object::toString)
+                            .collect(toList())
+                            .size();
+                }
+                return total;
+            }, SAMPLED_DAYS);
+        }
+    }
+
+    private static void time(String label, Supplier<Object> work) {
+        time(label, work, 1);
+    }
+
+    private static void time(String label, Supplier<Object> work, int operations) {
+        long started = System.nanoTime();
+        Object result = work.get();
+        long elapsed = System.nanoTime() - started;
+        System.out.printf("%-40s %,12d us/op  (%s)%n", label, elapsed / 1000 / operations, result);
+    }
+
+}
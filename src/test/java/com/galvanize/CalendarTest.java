@@ -1,14 +1,23 @@
 package com.galvanize;
 
 import com.galvanize.formatters.MonthlyFormatter;
+import com.galvanize.storage.TreeScheduleStore;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CalendarTest {
 
@@ -37,6 +46,219 @@ public class CalendarTest {
         assertEquals(Arrays.asList(reminder1, event, reminder2), calendar.items());
     }
 
+    @Test
+    public void itBulkLoadsThingsInOrder() {
+        Duration twoHours = Duration.of(2, ChronoUnit.HOURS);
+        Event event = new Event(
+                "My birthday party",
+                LocalDateTime.of(2028, 6, 7, 8, 9),
+                twoHours);
+
+        Reminder reminder1 = new Reminder(
+                "Buy birthday hats",
+                LocalDateTime.of(2028, 6, 7, 6, 9));
+
+        Reminder reminder2 = new Reminder(
+                "Clean up house",
+                LocalDateTime.of(2028, 6, 8, 6, 9));
+
+        Reminder reminder3 = new Reminder(
+                "Send thank you notes",
+                LocalDateTime.of(2028, 6, 8, 6, 9));
+
+        Calendar calendar = new Calendar();
+
+        calendar.addSchedulable(reminder2);
+        calendar.addAll(Arrays.asList(reminder3, event, reminder1));
+
+        assertEquals(Arrays.asList(reminder1, event, reminder2, reminder3), calendar.items());
+        assertEquals(LocalDateTime.of(2028, 6, 7, 6, 9), calendar.getFirstDateTime());
+        assertEquals(LocalDateTime.of(2028, 6, 8, 6, 9), calendar.getLastDateTime());
+
+        // a bulk load rebuilds the tree, and ranges taken before it still read the store as it is
+        TreeScheduleStore store = new TreeScheduleStore();
+        store.add(reminder2);
+        Collection<Scheduable> day = store.between(LocalDateTime.of(2028, 6, 7, 0, 0), LocalDateTime.of(2028, 6, 8, 0, 0));
+        store.addAll(Arrays.asList(reminder3, event, reminder1));
+        assertEquals(Arrays.asList(reminder1, event), new ArrayList<>(day));
+    }
+
+    @Test
+    public void itIndexesThingsByDay() {
+        Duration twoHours = Duration.of(2, ChronoUnit.HOURS);
+        Event event = new Event(
+                "My birthday party",
+                LocalDateTime.of(2028, 6, 7, 8, 9),
+                twoHours);
+
+        Reminder reminder1 = new Reminder(
+                "Buy birthday hats",
+                LocalDateTime.of(2028, 6, 7, 6, 9));
+
+        Reminder reminder2 = new Reminder(
+                "Clean up house",
+                LocalDateTime.of(2028, 6, 8, 0, 0));
+
+        Calendar calendar = new Calendar();
+
+        calendar.addSchedulable(reminder2);
+        calendar.addSchedulable(event);
+        calendar.addSchedulable(reminder1);
+
+        assertEquals(Arrays.asList(LocalDate.of(2028, 6, 7), LocalDate.of(2028, 6, 8)), calendar.dates());
+        assertEquals(Arrays.asList(reminder1.toString(), event.toString()), calendar.descriptionsFor(LocalDate.of(2028, 6, 7)));
+        assertEquals(Arrays.asList(reminder2.toString()), calendar.descriptionsFor(LocalDate.of(2028, 6, 8)));
+        assertEquals(Collections.emptyList(), calendar.descriptionsFor(LocalDate.of(2028, 6, 9)));
+    }
+
+    @Test
+    public void itFindsThingsBetweenTwoTimes() {
+        Duration twoHours = Duration.of(2, ChronoUnit.HOURS);
+        Event event = new Event(
+                "My birthday party",
+                LocalDateTime.of(2028, 6, 7, 8, 9),
+                twoHours);
+
+        Reminder reminder1 = new Reminder(
+                "Buy birthday hats",
+                LocalDateTime.of(2028, 6, 7, 6, 9));
+
+        Reminder reminder2 = new Reminder(
+                "Clean up house",
+                LocalDateTime.of(2028, 6, 8, 6, 9));
+
+        Calendar calendar = new Calendar();
+
+        calendar.addSchedulable(event);
+        calendar.addSchedulable(reminder1);
+        Collection<Scheduable> window = calendar.between(
+                LocalDateTime.of(2028, 6, 7, 8, 9),
+                LocalDateTime.of(2028, 6, 8, 6, 10));
+
+        assertEquals(Arrays.asList(event), new ArrayList<>(window));
+
+        calendar.addSchedulable(reminder2);
+
+        assertEquals(Arrays.asList(event, reminder2), new ArrayList<>(window));
+        assertThrows(UnsupportedOperationException.class, () -> window.remove(event));
+        assertEquals(0, calendar.between(LocalDateTime.of(2028, 6, 8, 6, 9), LocalDateTime.of(2028, 6, 7, 6, 9)).size());
+    }
+
+    @Test
+    public void itFindsConflictingEvents() {
+        Duration twoHours = Duration.of(2, ChronoUnit.HOURS);
+        Event party = new Event(
+                "My birthday party",
+                LocalDateTime.of(2028, 6, 7, 8, 9),
+                twoHours);
+
+        Event cake = new Event(
+                "Cake",
+                LocalDateTime.of(2028, 6, 7, 9, 0),
+                Duration.of(15, ChronoUnit.MINUTES));
+
+        Event cleanup = new Event(
+                "Clean up",
+                LocalDateTime.of(2028, 6, 7, 10, 9),
+                twoHours);
+
+        Reminder reminder = new Reminder(
+                "Buy birthday hats",
+                LocalDateTime.of(2028, 6, 7, 9, 0));
+
+        Calendar calendar = new Calendar();
+
+        calendar.addSchedulable(cleanup);
+        calendar.addSchedulable(party);
+        calendar.addSchedulable(reminder);
+        calendar.addSchedulable(cake);
+
+        assertEquals(Arrays.asList(cake), calendar.conflictsWith(party));
+        assertEquals(Collections.emptyList(), calendar.conflictsWith(cleanup));
+        assertEquals(Arrays.asList(party, cake), calendar.occurringAt(LocalDateTime.of(2028, 6, 7, 9, 0)));
+        assertEquals(Arrays.asList(party, cleanup), calendar.overlapping(LocalDateTime.of(2028, 6, 7, 10, 0), LocalDateTime.of(2028, 6, 7, 10, 30)));
+    }
+
+    @Test
+    public void itRemovesAndReschedulesThings() {
+        Duration twoHours = Duration.of(2, ChronoUnit.HOURS);
+        Event event = new Event(
+                "My birthday party",
+                LocalDateTime.of(2028, 6, 7, 8, 9),
+                twoHours);
+
+        Reminder reminder1 = new Reminder(
+                "Buy birthday hats",
+                LocalDateTime.of(2028, 6, 7, 6, 9));
+
+        Reminder reminder2 = new Reminder(
+                "Clean up house",
+                LocalDateTime.of(2028, 6, 8, 6, 9));
+
+        Calendar calendar = new Calendar();
+
+        calendar.addSchedulable(event);
+        calendar.addSchedulable(reminder1);
+        calendar.addSchedulable(reminder2);
+
+        assertTrue(calendar.remove(reminder2));
+        assertFalse(calendar.remove(reminder2));
+        assertEquals(Arrays.asList(reminder1, event), calendar.items());
+        assertEquals(Arrays.asList(LocalDate.of(2028, 6, 7)), calendar.dates());
+        assertEquals(LocalDateTime.of(2028, 6, 7, 8, 9), calendar.getLastDateTime());
+
+        assertTrue(calendar.reschedule(event, LocalDateTime.of(2028, 6, 9, 18, 0)));
+        assertEquals(Arrays.asList(reminder1, event), calendar.items());
+        assertEquals(Arrays.asList(LocalDate.of(2028, 6, 7), LocalDate.of(2028, 6, 9)), calendar.dates());
+        assertEquals(LocalDateTime.of(2028, 6, 9, 18, 0), calendar.getLastDateTime());
+        assertEquals(Collections.emptyList(), calendar.occurringAt(LocalDateTime.of(2028, 6, 7, 9, 0)));
+        assertEquals(Arrays.asList(event), calendar.occurringAt(LocalDateTime.of(2028, 6, 9, 19, 0)));
+
+        assertTrue(calendar.reschedule(reminder1, LocalDateTime.of(2028, 6, 10, 6, 9)));
+        assertEquals(Arrays.asList(event, reminder1), calendar.items());
+        assertEquals(LocalDateTime.of(2028, 6, 9, 18, 0), calendar.getFirstDateTime());
+        assertFalse(calendar.reschedule(reminder2, LocalDateTime.of(2028, 6, 10, 6, 9)));
+        // an item the calendar doesn't hold is left where it was
+        assertEquals(LocalDateTime.of(2028, 6, 8, 6, 9), reminder2.getStartTime());
+    }
+
+    @Test
+    public void itTellsListenersAboutChanges() {
+        Calendar calendar = new Calendar();
+        List<String> heard = new ArrayList<>();
+        calendar.addListener(new CalendarListener() {
+            @Override
+            public void added(Scheduable item) {
+                heard.add("added " + item);
+            }
+
+            @Override
+            public void removed(Scheduable item) {
+                heard.add("removed " + item);
+            }
+
+            @Override
+            public void rescheduled(Scheduable item, LocalDateTime previousStart) {
+                heard.add("moved from " + previousStart + ": " + item);
+            }
+        });
+        Reminder reminder = new Reminder("Reminder 1", LocalDateTime.of(2017, 1, 1, 9, 0));
+        Event event = new Event("Event 1", LocalDateTime.of(2017, 1, 2, 9, 0), Duration.ofHours(1));
+
+        calendar.addSchedulable(reminder);
+        calendar.addAll(Collections.singletonList(event));
+        calendar.reschedule(reminder, LocalDateTime.of(2017, 1, 3, 9, 0));
+        calendar.remove(event);
+        calendar.remove(event);
+
+        assertEquals(Arrays.asList(
+                "added Reminder 1 at Jan 1, 2017 9:00 AM (incomplete)",
+                "added Event 1 at Jan 2, 2017 9:00 AM (ends at Jan 2, 2017 10:00 AM)",
+                "moved from 2017-01-01T09:00: Reminder 1 at Jan 3, 2017 9:00 AM (incomplete)",
+                "removed Event 1 at Jan 2, 2017 9:00 AM (ends at Jan 2, 2017 10:00 AM)"
+        ), heard);
+    }
+
     @Test
     public void itFormatsThingsCorrectly() {
         Duration twoHours = Duration.of(2, ChronoUnit.HOURS);
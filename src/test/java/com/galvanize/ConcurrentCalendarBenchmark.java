@@ -0,0 +1,66 @@
+package com.galvanize;
+
+import com.galvanize.storage.ConcurrentScheduleStore;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+// Not a test: run with `java -cp <test classpath> com.galvanize.ConcurrentCalendarBenchmark`.
+// Measures insert throughput of a concurrent Calendar at 1, 4 and 16 writer threads.
+public class ConcurrentCalendarBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int[] WRITERS = {1, 4, 16};
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d (%,d inserts)%n", round + 1, ITEMS);
+            for (int writers : WRITERS) {
+                System.out.printf("  %2d writers, reminders %,12d ops/s   events %,12d ops/s%n",
+                        writers, run(writers, false), run(writers, true));
+            }
+        }
+    }
+
+    private static long run(int writers, boolean events) throws InterruptedException {
+        Calendar calendar = new Calendar(new ConcurrentScheduleStore());
+        LocalDateTime start = LocalDateTime.of(2017, 1, 1, 0, 0);
+        Duration duration = Duration.ofMinutes(30);
+        int perWriter = ITEMS / writers;
+        List<List<Scheduable>> work = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            List<Scheduable> items = new ArrayList<>(perWriter);
+            for (int i = 0; i < perWriter; i++) {
+                LocalDateTime startsAt = start.plusMinutes((i * 7919L + w * 31L) % (3 * 365 * 24 * 60));
+                items.add(events ? new Event("Event " + i, startsAt, duration) : new Reminder("Reminder " + i, startsAt));
+            }
+            work.add(items);
+        }
+
+        CountDownLatch ready = new CountDownLatch(writers);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(writers);
+        for (List<Scheduable> items : work) {
+            new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                items.forEach(calendar::addSchedulable);
+                done.countDown();
+            }).start();
+        }
+        ready.await();
+        long started = System.nanoTime();
+        go.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - started;
+        return perWriter * (long) writers * 1_000_000_000L / elapsed;
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.galvanize;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import static com.galvanize.ICalendarItem.DATE_FORMATTER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DisplayTextTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 9, 0);
+
+    @Test
+    public void itWritesDatesTheWayTheFormatterDoes() {
+        Random random = new Random(3);
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            LocalDateTime dateTime = LocalDateTime.of(1 + random.nextInt(9999), 1, 1, 0, 0)
+                    .plusSeconds(random.nextInt(366 * 24 * 60 * 60))
+                    .plusNanos(random.nextInt(1_000_000_000));
+            Duration duration = Duration.ofSeconds(random.nextInt(100_000), random.nextInt(1_000_000_000));
+
+            out.setLength(0);
+            DisplayText.appendDateTime(out, dateTime);
+            assertEquals(dateTime.format(DATE_FORMATTER), out.toString());
+            out.setLength(0);
+            DisplayText.appendDateTime(out, dateTime, duration);
+            assertEquals(dateTime.plus(duration).format(DATE_FORMATTER), out.toString());
+            out.setLength(0);
+            DisplayText.appendDate(out, dateTime.toLocalDate());
+            assertEquals(dateTime.toLocalDate().toString(), out.toString());
+        }
+    }
+
+    @Test
+    public void itHandsReplacedFormattersTheWholeDateTime() {
+        DateTimeFormatter original = ICalendarItem.DATE_FORMATTER;
+        ICalendarItem.DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSSSS");
+        try {
+            LocalDateTime dateTime = START.plusNanos(123_456_789);
+            Duration duration = Duration.ofSeconds(30, 900_000_000);
+            StringBuilder out = new StringBuilder();
+
+            DisplayText.appendDateTime(out, dateTime);
+            assertEquals("2017-01-01 09:00:00.123456789", out.toString());
+            out.setLength(0);
+            DisplayText.appendDateTime(out, dateTime, duration);
+            assertEquals("2017-01-01 09:00:31.023456789", out.toString());
+        } finally {
+            ICalendarItem.DATE_FORMATTER = original;
+        }
+    }
+
+    @Test
+    public void itSpellsDatesTheWayEachLocaleDoes() {
+        Random random = new Random(8);
+        StringBuilder out = new StringBuilder();
+        for (Locale locale : Locale.getAvailableLocales()) {
+            DisplayLocale display = DisplayLocale.of(locale);
+            assertSame(display, DisplayLocale.of(locale));
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DisplayLocale.localizedPattern(locale), locale);
+            for (int i = 0; i < 20; i++) {
+                LocalDateTime dateTime = START.plusMinutes(random.nextInt(60 * 24 * 365 * 2));
+                Duration duration = Duration.ofSeconds(random.nextInt(100_000));
+                out.setLength(0);
+                DisplayText.appendDateTime(out, dateTime, display);
+                assertEquals(dateTime.format(formatter), out.toString(), locale.toString());
+                out.setLength(0);
+                DisplayText.appendDateTime(out, dateTime, duration, display);
+                assertEquals(dateTime.plus(duration).format(formatter), out.toString(), locale.toString());
+            }
+        }
+
+        DateTimeFormatter french = DateTimeFormatter.ofPattern(DisplayLocale.localizedPattern(Locale.FRANCE), Locale.FRANCE);
+        Event event = new Event("Réunion", START, Duration.ofMinutes(90));
+        out.setLength(0);
+        event.appendTo(out, DisplayLocale.of(Locale.FRANCE));
+        assertEquals("Réunion at " + START.format(french) + " (ends at " + START.plusMinutes(90).format(french) + ")", out.toString());
+    }
+
+    @Test
+    public void itRendersItemsAsTheirOldFormatStringsDid() {
+        Event event = new Event("Deploy", LocalDateTime.of(2016, 12, 31, 23, 30), Duration.ofHours(1));
+        Reminder reminder = new Reminder("Renew passport", LocalDateTime.of(2017, 2, 28, 12, 5));
+        reminder.markComplete();
+        Todo todo = new Todo("Write docs", new Owner("Grace", "Hopper", "grace@example.com", "Admiral"));
+        RecurringEvent series = new RecurringEvent("Standup", START, Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.WEEKLY, 2).until(START.plusMonths(3)));
+
+        assertEquals(String.format("%s at %s (ends at %s)", "Deploy",
+                event.getStartTime().format(DATE_FORMATTER), event.getEndsAt().format(DATE_FORMATTER)), event.toString());
+        assertEquals("Deploy at Dec 31, 2016 11:30 PM (ends at Jan 1, 2017 12:30 AM)", event.toString());
+        assertEquals("Renew passport at Feb 28, 2017 12:05 PM (complete)", reminder.toString());
+        assertEquals("Write docs <Grace Hopper> grace@example.com (Admiral): incomplete", todo.toString());
+        assertEquals("Standup at Jan 1, 2017 9:00 AM (ends at Jan 1, 2017 9:15 AM), repeating every 2 weeks, until Apr 1, 2017 9:00 AM",
+                series.toString());
+        assertEquals("every day, 3 times", new RecurrenceRule(Frequency.DAILY, 1).times(3).toString());
+        assertEquals("Jan 1, 2017 9:00 AM to Jan 1, 2017 10:00 AM", new TimeSlot(START, START.plusHours(1)).toString());
+
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(event);
+        calendar.addSchedulable(series);
+        calendar.addSchedulable(new Reminder("Coffee", START.plusHours(1)));
+        StringBuilder out = new StringBuilder();
+        assertEquals(2, calendar.descriptionsFor(LocalDate.of(2017, 1, 1), out));
+        assertEquals(String.join("\n", calendar.descriptionsFor(LocalDate.of(2017, 1, 1))) + "\n", out.toString());
+    }
+
+    @Test
+    public void itRendersIntoABufferWithoutAllocating() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        Renderable[] items = {
+                new Event("Planning", START, Duration.ofMinutes(45)),
+                new Reminder("Call the bank", START.plusDays(40)),
+                new Todo("File expenses", new Owner("Ada", "Lovelace", "ada@example.com", "Engineer"))
+        };
+        Calendar calendar = new Calendar();
+        for (int i = 0; i < 500; i++) calendar.addSchedulable(new Event("Event " + i, START.plusSeconds(i), Duration.ofMinutes(30)));
+        StringBuilder out = new StringBuilder(1 << 16);
+
+        // warm up, and grow the buffer to its working size
+        for (int i = 0; i < 20_000; i++) {
+            out.setLength(0);
+            items[i % items.length].appendTo(out);
+        }
+        for (int i = 0; i < 50; i++) {
+            out.setLength(0);
+            calendar.descriptionsFor(START.toLocalDate(), out);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 30_000; i++) {
+            out.setLength(0);
+            items[i % items.length].appendTo(out);
+        }
+        long afterItems = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 20; i++) {
+            out.setLength(0);
+            calendar.descriptionsFor(START.toLocalDate(), out);
+        }
+        long afterDays = threads.getThreadAllocatedBytes(thread);
+
+        // nothing per item: what is left is the cost of asking for the numbers
+        assertTrue(afterItems - before < 4096, (afterItems - before) + " bytes for 30,000 items");
+        // each day's range query allocates its view and iterator, but its 500 items allocate nothing
+        assertTrue(afterDays - afterItems < 20 * 1024, (afterDays - afterItems) + " bytes for 20 days of 500 items");
+    }
+
+}
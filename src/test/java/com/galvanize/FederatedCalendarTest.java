@@ -0,0 +1,177 @@
+package com.galvanize;
+
+import com.galvanize.formatters.CachingMonthlyFormatter;
+import com.galvanize.formatters.MonthlyFormatter;
+import com.galvanize.formatters.ScheduleFormatter;
+import com.galvanize.storage.ColumnarScheduleStore;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FederatedCalendarTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 0, 0);
+
+    @Test
+    public void itReadsTheSameAsOneCalendarHoldingEverything() {
+        Random random = new Random(5);
+        List<Calendar> team = new ArrayList<>();
+        for (int c = 0; c < 6; c++) team.add(c % 2 == 0 ? new Calendar() : new Calendar(new ColumnarScheduleStore()));
+        Calendar everything = new Calendar();
+        List<Integer> minutes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) minutes.add(i * 7);
+        Collections.shuffle(minutes, random);
+        for (int i = 0; i < minutes.size(); i++) {
+            LocalDateTime startsAt = START.plusMinutes(minutes.get(i) * 20L);
+            Scheduable item = i % 3 == 0
+                    ? new Reminder("Reminder " + i, startsAt)
+                    : new Event("Event " + i, startsAt, Duration.ofMinutes(random.nextInt(240)));
+            team.get(random.nextInt(team.size())).addSchedulable(item);
+            everything.addSchedulable(item);
+        }
+        RecurringEvent standup = new RecurringEvent("Standup", START.plusSeconds(1), Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.WEEKLY, 1));
+        team.get(2).addSchedulable(standup);
+        everything.addSchedulable(standup);
+
+        Calendar federated = new FederatedCalendar(team);
+
+        assertEquals(everything.size(), federated.size());
+        assertEquals(everything.items(), federated.items());
+        assertEquals(everything.dates(), federated.dates());
+        assertEquals(everything.getFirstDateTime(), federated.getFirstDateTime());
+        assertEquals(everything.getLastDateTime(), federated.getLastDateTime());
+        assertEquals(everything.format(new ScheduleFormatter()), federated.format(new ScheduleFormatter()));
+        assertEquals(everything.format(new MonthlyFormatter()), federated.format(new MonthlyFormatter()));
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime from = START.plusMinutes(random.nextInt(2000 * 7 * 20));
+            LocalDateTime to = from.plusHours(random.nextInt(24 * 14));
+            assertEquals(new ArrayList<>(everything.between(from, to)), new ArrayList<>(federated.between(from, to)));
+            assertEquals(everything.between(from, to).size(), federated.between(from, to).size());
+            assertEquals(everything.overlapping(from, to), federated.overlapping(from, to));
+            assertEquals(everything.occurringAt(from), federated.occurringAt(from));
+        }
+    }
+
+    @Test
+    public void itPagesThroughSourcesWithEndlessSeries() {
+        Calendar alice = new Calendar();
+        alice.addSchedulable(new RecurringEvent("Standup", START, Duration.ofMinutes(15), new RecurrenceRule(Frequency.DAILY, 1)));
+        Calendar bob = new Calendar();
+        bob.addSchedulable(new Reminder("Bob", START.plusHours(1)));
+        FederatedCalendar team = new FederatedCalendar(alice, bob);
+
+        AgendaPage page = team.agenda(START, 3);
+        List<Scheduable> items = new ArrayList<>(page.getItems());
+        page = team.agenda(page.getNextCursor(), 3);
+        items.addAll(page.getItems());
+
+        assertEquals(6, items.size());
+        assertEquals(START.plusHours(1), items.get(1).getStartTime());
+        assertEquals(START.plusDays(4), items.get(5).getStartTime());
+        assertEquals(alice.agenda(START.plusDays(5), 1).getItems().get(0).getStartTime(),
+                team.agenda(page.getNextCursor(), 1).getItems().get(0).getStartTime());
+        assertTrue(new FederatedCalendar().agenda(START, 3).getItems().isEmpty());
+    }
+
+    @Test
+    public void itShowsChangesToItsSourcesAndTakesNoneItself() {
+        Calendar alice = new Calendar();
+        Calendar bob = new Calendar();
+        Reminder call = new Reminder("Call", START.plusHours(2));
+        alice.addSchedulable(call);
+        Calendar team = new FederatedCalendar(alice, bob);
+        Calendar before = team.snapshot();
+
+        Event lunch = new Event("Lunch", START.plusHours(1), Duration.ofHours(1));
+        bob.addSchedulable(lunch);
+
+        assertEquals(Arrays.asList(lunch, call), team.items());
+        assertEquals(Arrays.asList(lunch), team.occurringAt(START.plusHours(1)));
+        assertEquals(Arrays.asList(call), before.items());
+        assertThrows(UnsupportedOperationException.class, () -> team.addSchedulable(new Reminder("Nope", START)));
+        assertThrows(UnsupportedOperationException.class, () -> team.remove(call));
+    }
+
+    @Test
+    public void itLetsGoOfTheSourcesOnceTheViewIsGone() {
+        Calendar alice = new Calendar();
+        Calendar bob = new Calendar();
+        List<String> heard = new ArrayList<>();
+        WeakReference<Calendar> team = listenThroughView(alice, bob, heard);
+
+        alice.addSchedulable(new Reminder("Alice", START));
+        assertEquals(1, heard.size());
+        assertEquals(1, alice.listenerCount());
+
+        awaitCollected(team);
+        alice.addSchedulable(new Reminder("Alice again", START));
+        bob.addSchedulable(new Reminder("Bob", START));
+        assertEquals(1, heard.size());
+        assertEquals(0, alice.listenerCount());
+        assertEquals(0, bob.listenerCount());
+    }
+
+    @Test
+    public void itLosesTheListenersOfAFormatterThatIsGone() {
+        Calendar alice = new Calendar();
+        alice.addSchedulable(new Reminder("Alice", START));
+        Calendar team = new FederatedCalendar(alice);
+        WeakReference<CachingMonthlyFormatter> formatter = formatOnce(team);
+        assertEquals(1, alice.listenerCount());
+
+        awaitCollected(formatter);
+        alice.addSchedulable(new Reminder("Alice again", START));
+        assertEquals(0, alice.listenerCount());
+
+        CachingMonthlyFormatter kept = new CachingMonthlyFormatter();
+        kept.format(team);
+        kept.forget(team);
+        assertEquals(0, alice.listenerCount());
+    }
+
+    private static WeakReference<Calendar> listenThroughView(Calendar alice, Calendar bob, List<String> heard) {
+        Calendar team = new FederatedCalendar(alice, bob);
+        team.addListener(new CalendarListener() {
+            @Override
+            public void added(Scheduable item) {
+                heard.add("added " + item);
+            }
+
+            @Override
+            public void removed(Scheduable item) {
+                heard.add("removed " + item);
+            }
+
+            @Override
+            public void rescheduled(Scheduable item, LocalDateTime previousStart) {
+                heard.add("moved " + item);
+            }
+        });
+        return new WeakReference<>(team);
+    }
+
+    private static WeakReference<CachingMonthlyFormatter> formatOnce(Calendar calendar) {
+        CachingMonthlyFormatter formatter = new CachingMonthlyFormatter();
+        formatter.format(calendar);
+        return new WeakReference<>(formatter);
+    }
+
+    private static void awaitCollected(WeakReference<?> reference) {
+        for (int i = 0; i < 50 && reference.get() != null; i++) System.gc();
+        assertNull(reference.get());
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.galvanize;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FreeBusyTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2017, 1, 2, 0, 0);
+
+    @Test
+    public void itMergesBusyTimeAcrossCalendars() {
+        Calendar alice = new Calendar();
+        alice.addSchedulable(new Event("Overnight deploy", MONDAY.minusHours(2), Duration.ofHours(3)));
+        alice.addSchedulable(new Event("Standup", MONDAY.plusHours(9), Duration.ofMinutes(15)));
+        alice.addSchedulable(new Reminder("Not busy", MONDAY.plusHours(12)));
+        alice.addSchedulable(new Event("Planning", MONDAY.plusHours(14), Duration.ofHours(2)));
+        Calendar bob = new Calendar();
+        bob.addSchedulable(new Event("Coffee", MONDAY.plusHours(9).plusMinutes(15), Duration.ofMinutes(30)));
+        bob.addSchedulable(new Event("Empty", MONDAY.plusHours(11), Duration.ZERO));
+        bob.addSchedulable(new Event("Review", MONDAY.plusHours(15), Duration.ofMinutes(30)));
+        bob.addSchedulable(new RecurringEvent("Wrap up", MONDAY.minusDays(7).plusHours(17).plusMinutes(30), Duration.ofHours(1),
+                new RecurrenceRule(Frequency.DAILY, 1)));
+
+        FreeBusy freeBusy = new FreeBusy(alice, bob);
+        LocalDateTime from = MONDAY;
+        LocalDateTime to = MONDAY.plusHours(18);
+
+        assertEquals(Arrays.asList(
+                new TimeSlot(MONDAY, MONDAY.plusHours(1)),
+                new TimeSlot(MONDAY.plusHours(9), MONDAY.plusHours(9).plusMinutes(45)),
+                new TimeSlot(MONDAY.plusHours(14), MONDAY.plusHours(16)),
+                new TimeSlot(MONDAY.plusHours(17).plusMinutes(30), to)
+        ), freeBusy.busy(from, to));
+        assertEquals(Arrays.asList(
+                new TimeSlot(MONDAY.plusHours(1), MONDAY.plusHours(9)),
+                new TimeSlot(MONDAY.plusHours(9).plusMinutes(45), MONDAY.plusHours(14)),
+                new TimeSlot(MONDAY.plusHours(16), MONDAY.plusHours(17).plusMinutes(30))
+        ), freeBusy.free(from, to));
+        assertEquals(Arrays.asList(new TimeSlot(from, to)), new FreeBusy().free(from, to));
+    }
+
+    @Test
+    public void itFindsTheFirstSlotsWhereEveryoneIsFree() {
+        List<Calendar> attendees = new ArrayList<>();
+        for (int a = 0; a < 12; a++) {
+            Calendar calendar = new Calendar();
+            // everyone is busy 9 to 10, and one attendee each hour after that until 21:00
+            calendar.addSchedulable(new Event("Standup", MONDAY.plusHours(9), Duration.ofHours(1)));
+            calendar.addSchedulable(new Event("Focus", MONDAY.plusHours(10 + a), Duration.ofMinutes(50)));
+            attendees.add(calendar);
+        }
+        FreeBusy freeBusy = new FreeBusy(attendees);
+
+        assertEquals(Arrays.asList(
+                new TimeSlot(MONDAY.plusHours(8), MONDAY.plusHours(8).plusMinutes(30)),
+                new TimeSlot(MONDAY.plusHours(8).plusMinutes(30), MONDAY.plusHours(9)),
+                new TimeSlot(MONDAY.plusHours(21).plusMinutes(50), MONDAY.plusHours(22).plusMinutes(20)),
+                new TimeSlot(MONDAY.plusHours(22).plusMinutes(20), MONDAY.plusHours(22).plusMinutes(50))
+        ), freeBusy.firstFree(4, Duration.ofMinutes(30), MONDAY.plusHours(8), MONDAY.plusDays(7)));
+        assertEquals(Arrays.asList(
+                new TimeSlot(MONDAY.plusHours(10).plusMinutes(50), MONDAY.plusHours(11))
+        ), freeBusy.firstFree(1, Duration.ofMinutes(10), MONDAY.plusHours(9).plusMinutes(30), MONDAY.plusDays(7)));
+        assertEquals(Collections.emptyList(),
+                freeBusy.firstFree(3, Duration.ofMinutes(30), MONDAY.plusHours(9), MONDAY.plusHours(10)));
+    }
+
+    @Test
+    public void itMatchesAMinuteByMinuteScan() {
+        Random random = new Random(3);
+        List<Calendar> calendars = new ArrayList<>();
+        for (int c = 0; c < 6; c++) {
+            Calendar calendar = new Calendar();
+            for (int i = 0; i < 200; i++) {
+                calendar.addSchedulable(new Event("Event", MONDAY.plusMinutes(random.nextInt(60 * 24 * 7)),
+                        Duration.ofMinutes(5 + random.nextInt(120))));
+            }
+            calendars.add(calendar);
+        }
+        LocalDateTime from = MONDAY.plusDays(2);
+        LocalDateTime to = MONDAY.plusDays(4);
+
+        List<TimeSlot> expected = new ArrayList<>();
+        LocalDateTime blockStart = null;
+        for (LocalDateTime minute = from; minute.isBefore(to); minute = minute.plusMinutes(1)) {
+            boolean busy = false;
+            for (Calendar calendar : calendars) busy |= !calendar.occurringAt(minute).isEmpty();
+            if (busy && blockStart == null) blockStart = minute;
+            if (!busy && blockStart != null) {
+                expected.add(new TimeSlot(blockStart, minute));
+                blockStart = null;
+            }
+        }
+        if (blockStart != null) expected.add(new TimeSlot(blockStart, to));
+
+        assertEquals(expected, new FreeBusy(calendars).busy(from, to));
+    }
+
+}
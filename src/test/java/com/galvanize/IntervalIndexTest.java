@@ -0,0 +1,73 @@
+package com.galvanize;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IntervalIndexTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2028, 6, 7, 12, 0);
+
+    @Test
+    public void itAnswersOverlapQueries() {
+        Event morning = new Event("Morning", NOON.minusHours(3), Duration.ofHours(2));
+        Event lunch = new Event("Lunch", NOON, Duration.ofHours(1));
+        Event allDay = new Event("All day", NOON.minusHours(12), Duration.ofHours(24));
+
+        IntervalIndex index = new IntervalIndex();
+        index.add(lunch);
+        index.add(morning);
+        index.add(allDay);
+
+        assertEquals(Arrays.asList(allDay, morning), index.overlapping(NOON.minusHours(2), NOON));
+        assertEquals(Arrays.asList(allDay, lunch), index.at(NOON));
+        assertEquals(Arrays.asList(allDay), index.at(NOON.minusHours(1)));
+        assertEquals(Arrays.asList(morning, lunch), index.within(NOON.minusHours(3), NOON.plusHours(1)));
+        assertEquals(Arrays.asList(allDay, morning), index.containing(NOON.minusHours(3), NOON.minusHours(1)));
+        assertEquals(Collections.emptyList(), index.overlapping(NOON.plusHours(12), NOON.plusHours(13)));
+    }
+
+    @Test
+    public void itAgreesWithALinearScan() {
+        Random random = new Random(42);
+        List<Event> events = new ArrayList<>();
+        IntervalIndex index = new IntervalIndex();
+        for (int i = 0; i < 2000; i++) {
+            Event event = new Event("Event " + i, NOON.plusMinutes(random.nextInt(10_000)), Duration.ofMinutes(random.nextInt(300)));
+            events.add(event);
+            index.add(event);
+        }
+        events.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = NOON.plusMinutes(random.nextInt(10_000));
+            LocalDateTime to = from.plusMinutes(random.nextInt(120));
+
+            assertEquals(
+                    events.stream().filter(e -> e.getStartTime().isBefore(to) && e.getEndsAt().isAfter(from)).collect(toList()),
+                    sortedByStart(index.overlapping(from, to)));
+            assertEquals(
+                    events.stream().filter(e -> !e.getStartTime().isAfter(from) && e.getEndsAt().isAfter(from)).collect(toList()),
+                    sortedByStart(index.at(from)));
+            assertEquals(
+                    events.stream().filter(e -> !e.getStartTime().isBefore(from) && e.getStartTime().isBefore(to) && !e.getEndsAt().isAfter(to)).collect(toList()),
+                    sortedByStart(index.within(from, to)));
+        }
+    }
+
+    private static List<Spannable> sortedByStart(List<Spannable> items) {
+        List<Spannable> sorted = new ArrayList<>(items);
+        sorted.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        return sorted;
+    }
+
+}
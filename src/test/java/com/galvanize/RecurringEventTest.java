@@ -0,0 +1,196 @@
+package com.galvanize;
+
+import com.galvanize.formatters.CachingMonthlyFormatter;
+import com.galvanize.formatters.MonthlyFormatter;
+import com.galvanize.formatters.ScheduleFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.time.temporal.ChronoUnit.HOURS;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertLinesMatch;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecurringEventTest {
+
+    private static final LocalDateTime STANDUP = LocalDateTime.of(2017, 1, 2, 9, 0);
+
+    @Test
+    public void itTellsListenersWhenACalendarExceptsAnOccurrence() {
+        RecurringEvent standup = new RecurringEvent("Standup", STANDUP, Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.WEEKLY, 1).times(10));
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(standup);
+        List<Scheduable> changed = new ArrayList<>();
+        calendar.addListener(new CalendarListener() {
+            @Override
+            public void added(Scheduable item) {
+            }
+
+            @Override
+            public void removed(Scheduable item) {
+            }
+
+            @Override
+            public void rescheduled(Scheduable item, LocalDateTime previousStart) {
+            }
+
+            @Override
+            public void changed(Scheduable item) {
+                changed.add(item);
+            }
+        });
+        CachingMonthlyFormatter formatter = new CachingMonthlyFormatter();
+        String before = formatter.format(calendar);
+
+        assertTrue(calendar.except(standup, STANDUP.plusWeeks(2)));
+        assertEquals(Collections.singletonList(standup), changed);
+        assertEquals(new MonthlyFormatter().format(calendar), formatter.format(calendar));
+        assertNotEquals(before, formatter.format(calendar));
+        assertFalse(new Calendar().except(standup, STANDUP.plusWeeks(3)));
+        assertEquals(1, changed.size());
+    }
+
+    @Test
+    public void itExpandsOccurrencesInsideTheWindow() {
+        RecurringEvent standup = new RecurringEvent(
+                "Standup",
+                STANDUP,
+                Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.WEEKLY, 1).times(10));
+        standup.except(STANDUP.plusWeeks(2));
+
+        assertEquals(
+                Arrays.asList(STANDUP.plusWeeks(1), STANDUP.plusWeeks(3)),
+                starts(standup.occurrences(STANDUP.plusDays(1), STANDUP.plusWeeks(4))));
+        assertEquals(STANDUP.plusWeeks(9), standup.getLastStartTime());
+        assertEquals(9, starts(standup.occurrences(STANDUP, LocalDateTime.MAX)).size());
+    }
+
+    @Test
+    public void itSkipsMonthsWithoutTheDay() {
+        RecurringEvent rent = new RecurringEvent(
+                "Pay rent",
+                LocalDateTime.of(2017, 1, 31, 9, 0),
+                Duration.ofMinutes(5),
+                new RecurrenceRule(Frequency.MONTHLY, 1).times(3));
+
+        assertEquals(
+                Arrays.asList(LocalDateTime.of(2017, 1, 31, 9, 0), LocalDateTime.of(2017, 3, 31, 9, 0), LocalDateTime.of(2017, 5, 31, 9, 0)),
+                starts(rent.occurrences(LocalDateTime.of(2017, 1, 1, 0, 0), LocalDateTime.of(2018, 1, 1, 0, 0))));
+        assertEquals(
+                Arrays.asList(LocalDateTime.of(2017, 5, 31, 9, 0)),
+                starts(rent.occurrences(LocalDateTime.of(2017, 4, 1, 0, 0), LocalDateTime.of(2018, 1, 1, 0, 0))));
+    }
+
+    @Test
+    public void itKnowsItsLastStartWithoutExpandingTheSeries() {
+        LocalDateTime start = LocalDateTime.of(2016, 1, 31, 9, 0);
+        for (Frequency frequency : Frequency.values()) {
+            for (int interval = 1; interval <= 3; interval++) {
+                RecurrenceRule rule = new RecurrenceRule(frequency, interval);
+                for (RecurrenceRule bounded : Arrays.asList(
+                        rule.times(1), rule.times(7), rule.times(40),
+                        rule.until(start.minusDays(1)), rule.until(start), rule.until(start.plusDays(45)), rule.until(start.plusYears(3)))) {
+                    RecurringEvent series = new RecurringEvent("Series", start, Duration.ofHours(1), bounded);
+                    assertEquals(lastOf(series), series.getLastStartTime(), bounded.toString());
+
+                    // excepting the last occurrence falls back to the one before it
+                    if (series.getLastStartTime() != null) series.except(series.getLastStartTime());
+                    assertEquals(lastOf(series), series.getLastStartTime(), bounded.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void itNeverEndsWithoutACountOrUntil() {
+        RecurringEvent daily = new RecurringEvent(
+                "Walk the dog",
+                STANDUP,
+                Duration.ofMinutes(30),
+                new RecurrenceRule(Frequency.DAILY, 2));
+
+        assertNull(daily.getLastStartTime());
+        assertEquals(
+                Arrays.asList(STANDUP.plusDays(2000), STANDUP.plusDays(2002)),
+                starts(daily.occurrences(STANDUP.plusDays(1999), STANDUP.plusDays(2003))));
+    }
+
+    @Test
+    public void itIsExpandedByTheCalendar() {
+        Calendar calendar = new Calendar();
+        RecurringEvent standup = new RecurringEvent(
+                "Standup",
+                STANDUP,
+                Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.DAILY, 1).until(STANDUP.plusDays(2)));
+        Event review = new Event("Review", STANDUP.plusDays(1).plusMinutes(10), Duration.of(1, HOURS));
+        calendar.addSchedulable(standup);
+        calendar.addSchedulable(review);
+
+        String expected = "2017-01-02\n" +
+                " - Standup at Jan 2, 2017 9:00 AM (ends at Jan 2, 2017 9:15 AM)\n" +
+                "\n" +
+                "2017-01-03\n" +
+                " - Standup at Jan 3, 2017 9:00 AM (ends at Jan 3, 2017 9:15 AM)\n" +
+                " - Review at Jan 3, 2017 9:10 AM (ends at Jan 3, 2017 10:10 AM)\n" +
+                "\n" +
+                "2017-01-04\n" +
+                " - Standup at Jan 4, 2017 9:00 AM (ends at Jan 4, 2017 9:15 AM)\n" +
+                "\n";
+
+        assertEquals(expected, calendar.format(new ScheduleFormatter()));
+        assertEquals(Arrays.asList(standup, review), calendar.items());
+        assertEquals(Arrays.asList(LocalDate.of(2017, 1, 2), LocalDate.of(2017, 1, 3), LocalDate.of(2017, 1, 4)), calendar.dates());
+        assertEquals(
+                Arrays.asList("Standup at Jan 3, 2017 9:00 AM (ends at Jan 3, 2017 9:15 AM)"),
+                calendar.conflictsWith(review).stream().map(Object::toString).collect(toList()));
+        assertEquals(2, calendar.between(STANDUP.plusDays(1), STANDUP.plusDays(2)).size());
+    }
+
+    @Test
+    public void itExportsOneEventWithARule() {
+        RecurringEvent standup = new RecurringEvent(
+                "Standup",
+                STANDUP,
+                Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.WEEKLY, 2).times(10));
+        standup.except(STANDUP.plusWeeks(2));
+
+        String expected = "BEGIN:VEVENT\n" +
+                "DTSTART:2017-01-02T09:00\n" +
+                "DTEND:2017-01-02T09:15\n" +
+                "RRULE:FREQ=WEEKLY;INTERVAL=2;COUNT=10\n" +
+                "EXDATE:2017-01-16T09:00\n" +
+                "UID:[a-z0-9-]{36}@example.com\n" +
+                "DESCRIPTION:Standup\n" +
+                "END:VEVENT\n";
+
+        assertLinesMatch(Arrays.asList(expected.split("\n")), Arrays.asList(standup.iCalendar().split("\n")));
+    }
+
+    private static LocalDateTime lastOf(RecurringEvent series) {
+        List<LocalDateTime> starts = starts(series.occurrences(series.getStartTime(), LocalDateTime.MAX));
+        return starts.isEmpty() ? null : starts.get(starts.size() - 1);
+    }
+
+    private static List<LocalDateTime> starts(Iterator<Spannable> occurrences) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        occurrences.forEachRemaining(occurrence -> starts.add(occurrence.getStartTime()));
+        return starts;
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.galvanize.formatters;
+
+import com.galvanize.Calendar;
+import com.galvanize.Event;
+import com.galvanize.FederatedCalendar;
+import com.galvanize.Frequency;
+import com.galvanize.RecurrenceRule;
+import com.galvanize.RecurringEvent;
+import com.galvanize.Reminder;
+import com.galvanize.Scheduable;
+import com.galvanize.storage.ConcurrentScheduleStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachingMonthlyFormatterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 9, 0);
+
+    @Test
+    public void itOnlyRerendersTheMonthsThatChanged() {
+        Calendar calendar = new Calendar();
+        for (int i = 0; i < 36; i++) {
+            calendar.addSchedulable(new Event("Event " + i, START.plusMonths(i).plusDays(i % 20), Duration.ofHours(1)));
+        }
+        CachingMonthlyFormatter formatter = new CachingMonthlyFormatter();
+
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 0, 36);
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 36, 0);
+
+        Reminder reminder = new Reminder("Reminder", START.plusMonths(5).plusDays(3));
+        calendar.addSchedulable(reminder);
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 35, 1);
+
+        calendar.reschedule(reminder, START.plusMonths(7));
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 34, 2);
+
+        calendar.remove(reminder);
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 35, 1);
+
+        calendar.addSchedulable(new RecurringEvent("Standup", START.plusDays(2), Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.WEEKLY, 3).times(40)));
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 0, 36);
+
+        // a new last month changes where the span stops, and so the old last month's length
+        calendar.addSchedulable(new Reminder("Later", START.plusMonths(36)));
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 35, 2);
+    }
+
+    @Test
+    public void itKeepsNoMoreThanItsLimit() {
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(new Reminder("First", START));
+        calendar.addSchedulable(new Reminder("Last", START.plusYears(3)));
+        CachingMonthlyFormatter formatter = new CachingMonthlyFormatter(12);
+
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 0, 37);
+        assertEquals(12, formatter.cachedMonths());
+        // months are read in the same order each time, so a cache smaller than the span never hits
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 0, 37);
+    }
+
+    @Test
+    public void itSeesChangesToTheSourcesOfAFederatedCalendar() {
+        Calendar alice = new Calendar();
+        Calendar bob = new Calendar();
+        alice.addSchedulable(new Reminder("Alice", START));
+        bob.addSchedulable(new Reminder("Bob", START.plusMonths(2)));
+        Calendar team = new FederatedCalendar(alice, bob);
+        CachingMonthlyFormatter formatter = new CachingMonthlyFormatter();
+
+        assertRendersLikeMonthlyFormatter(team, formatter, 0, 3);
+        bob.addSchedulable(new Reminder("Bob again", START.plusMonths(1)));
+        assertRendersLikeMonthlyFormatter(team, formatter, 2, 1);
+    }
+
+    @Test
+    public void itForgetsCalendarsItIsToldTo() {
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(new Reminder("First", START));
+        calendar.addSchedulable(new Reminder("Last", START.plusMonths(2)));
+        CachingMonthlyFormatter formatter = new CachingMonthlyFormatter();
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 0, 3);
+
+        formatter.forget(calendar);
+        assertEquals(0, formatter.cachedMonths());
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 0, 3);
+        assertRendersLikeMonthlyFormatter(calendar, formatter, 3, 0);
+    }
+
+    private static void assertRendersLikeMonthlyFormatter(Calendar calendar, CachingMonthlyFormatter formatter, int hits, int misses) {
+        long hitsBefore = formatter.hits();
+        long missesBefore = formatter.misses();
+        assertEquals(new MonthlyFormatter().format(calendar), formatter.format(calendar));
+        assertEquals(hits, formatter.hits() - hitsBefore, "hits");
+        assertEquals(misses, formatter.misses() - missesBefore, "misses");
+    }
+
+    @Test
+    public void itKeepsNoBlockRenderedBeforeAWriteIsVisible() throws Exception {
+        ConcurrentScheduleStore store = new ConcurrentScheduleStore();
+        Calendar calendar = new Calendar(store);
+        calendar.addSchedulable(new Reminder("Reminder 1", LocalDateTime.of(2017, 1, 3, 4, 4)));
+        CachingMonthlyFormatter formatter = new CachingMonthlyFormatter();
+        formatter.format(calendar);
+
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        // a batch of one reads its start time only after taking its sequence number
+        Scheduable slow = () -> {
+            stalled.countDown();
+            try {
+                resume.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return LocalDateTime.of(2017, 1, 10, 9, 0);
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> stalledWriter = executor.submit(() -> store.addAll(Collections.singletonList(slow)));
+            assertTrue(stalled.await(10, TimeUnit.SECONDS));
+
+            // January's version moves on, but the reminder stays hidden behind the stalled write
+            calendar.addSchedulable(new Reminder("Reminder 2", LocalDateTime.of(2017, 1, 20, 4, 4)));
+            assertTrue(calendar.hasUnpublishedWrites());
+            assertEquals(new MonthlyFormatter().format(calendar), formatter.format(calendar));
+
+            resume.countDown();
+            stalledWriter.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(new MonthlyFormatter().format(calendar), formatter.format(calendar));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.galvanize.formatters;
+
+import com.galvanize.Calendar;
+import com.galvanize.Event;
+import com.galvanize.Scheduable;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.time.temporal.TemporalAdjusters.firstDayOfMonth;
+import static java.time.temporal.TemporalAdjusters.lastDayOfMonth;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+
+// Not a test: run with `java -cp <test classpath> com.galvanize.formatters.MonthlyFormatterBenchmark`.
+// Compares the single-pass MonthlyFormatter, serial and on the common pool, against the
+// day-by-day rendering it replaced.
+public class MonthlyFormatterBenchmark {
+
+    private static final int ITEMS = 500_000;
+
+    public static void main(String[] args) {
+        Calendar calendar = new Calendar();
+        List<Scheduable> items = new ArrayList<>(ITEMS);
+        LocalDateTime start = LocalDateTime.of(2017, 1, 1, 0, 0);
+        Duration duration = Duration.ofMinutes(30);
+        for (int i = 0; i < ITEMS; i++) {
+            // three years, with every seventh day left empty
+            LocalDateTime startsAt = start.plusMinutes(i * 97L % (3 * 365 * 24 * 60));
+            if (startsAt.toLocalDate().toEpochDay() % 7 == 0) startsAt = startsAt.plusDays(1);
+            items.add(new Event("Event " + i, startsAt, duration));
+        }
+        calendar.addAll(items);
+
+        MonthlyFormatter formatter = new MonthlyFormatter();
+        MonthlyFormatter parallel = new MonthlyFormatter(ForkJoinPool.commonPool());
+        if (!formatter.format(calendar).equals(dayByDay(calendar))) throw new AssertionError("outputs differ");
+        if (!parallel.format(calendar).equals(dayByDay(calendar))) throw new AssertionError("outputs differ");
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d (%,d items)%n", round + 1, ITEMS);
+            time("  single pass", () -> formatter.format(calendar).length());
+            time("  single pass, month per task (" + ForkJoinPool.commonPool().getParallelism() + " threads)", () -> parallel.format(calendar).length());
+            time("  day by day", () -> dayByDay(calendar).length());
+        }
+    }
+
+    // the previous MonthlyFormatter, which formats every item of every day to decide on a '*'
+    private static String dayByDay(Calendar calendar) {
+        LocalDate startMonth = calendar.getFirstDateTime().toLocalDate().with(firstDayOfMonth());
+        LocalDate endMonth = calendar.getLastDateTime().toLocalDate().with(lastDayOfMonth());
+
+        Map<Month, List<LocalDate>> monthListMap = Stream.iterate(startMonth, date -> date.plusDays(1))
+                .limit(ChronoUnit.DAYS.between(startMonth, endMonth))
+                .collect(groupingBy(LocalDate::getMonth, LinkedHashMap::new, mapping(Function.identity(), toList())));
+
+        StringBuilder builder = new StringBuilder();
+        monthListMap.keySet().forEach(month -> {
+            builder.append(month.getDisplayName(TextStyle.FULL, Locale.US)).append("\n");
+            int previousDay = 0;
+            builder.append(String.join(" ", Collections.nCopies(monthListMap.get(month).get(0).getDayOfWeek().getValue() - 1, "   ")));
+            for (LocalDate date : monthListMap.get(month)) {
+                builder.append(date.getDayOfWeek().getValue() < previousDay ? "\n" : " ");
+                String displayDay = String.valueOf(date.getDayOfMonth());
+                if (displayDay.length() == 1) displayDay = " " + displayDay;
+                builder.append(displayDay);
+                builder.append(calendar.descriptionsFor(date).isEmpty() ? " " : "*");
+                previousDay = date.getDayOfWeek().getValue();
+            }
+            builder.append("\n\n");
+        });
+        return builder.toString();
+    }
+
+    private static void time(String label, Supplier<Object> work) {
+        long started = System.nanoTime();
+        Object result = work.get();
+        long elapsed = System.nanoTime() - started;
+        System.out.printf("%-40s %,12d us/op  (%s)%n", label, elapsed / 1000, result);
+    }
+
+}
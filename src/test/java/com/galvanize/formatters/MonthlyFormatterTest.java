@@ -2,14 +2,28 @@ package com.galvanize.formatters;
 
 import com.galvanize.Calendar;
 import com.galvanize.Event;
+import com.galvanize.Frequency;
+import com.galvanize.RecurrenceRule;
+import com.galvanize.RecurringEvent;
 import com.galvanize.Reminder;
+import com.galvanize.Scheduable;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.time.temporal.ChronoUnit.HOURS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MonthlyFormatterTest {
 
@@ -42,4 +56,133 @@ public class MonthlyFormatterTest {
         assertEquals(expected, formatter.format(calendar));
     }
 
+    @Test
+    public void itMarksTheDaysRecurringEventsFallOn() {
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(new RecurringEvent("Standup", LocalDateTime.of(2017, 1, 9, 9, 0), Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.WEEKLY, 2).times(3)));
+        calendar.addSchedulable(new Reminder("Reminder 1", LocalDateTime.of(2017, 1, 31, 23, 59)));
+
+        String expected = "January\n" +
+                "                         1 \n" +
+                " 2   3   4   5   6   7   8 \n" +
+                " 9* 10  11  12  13  14  15 \n" +
+                "16  17  18  19  20  21  22 \n" +
+                "23* 24  25  26  27  28  29 \n" +
+                "30  31*\n" +
+                "\n" +
+                "February\n" +
+                "         1   2   3   4   5 \n" +
+                " 6*  7   8   9  10  11  12 \n" +
+                "13  14  15  16  17  18  19 \n" +
+                "20  21  22  23  24  25  26 \n" +
+                "27 \n" +
+                "\n";
+
+        assertEquals(expected, new MonthlyFormatter().format(calendar));
+    }
+
+    @Test
+    public void itStreamsTheSameTextItReturns() throws IOException {
+        Calendar calendar = new Calendar();
+        for (int i = 0; i < 400; i++) {
+            calendar.addSchedulable(new Reminder("Reminder " + i, LocalDateTime.of(2017, 1, 1, 9, 0).plusDays(5L * i)));
+        }
+
+        StringWriter writer = new StringWriter();
+        new MonthlyFormatter().format(calendar, writer);
+
+        assertEquals(new MonthlyFormatter().format(calendar), writer.toString());
+    }
+
+    @Test
+    public void itRendersLongSpansInParallel() {
+        Calendar calendar = new Calendar();
+        for (int i = 0; i < 3000; i++) {
+            calendar.addSchedulable(new Reminder("Reminder " + i, LocalDateTime.of(2017, 1, 1, 9, 0).plusHours(11L * i)));
+        }
+        AtomicInteger workers = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(4, p -> {
+            workers.incrementAndGet();
+            return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+        }, null, false);
+
+        try {
+            // about four and a half months: below the threshold, so the pool is never used
+            Calendar small = new Calendar();
+            calendar.items().subList(0, 300).forEach(small::addSchedulable);
+            assertEquals(new MonthlyFormatter().format(small), new MonthlyFormatter(pool, 6).format(small));
+            assertEquals(0, workers.get());
+
+            assertEquals(new MonthlyFormatter().format(calendar), new MonthlyFormatter(pool, 6).format(calendar));
+            assertEquals(new MonthlyFormatter().format(calendar), new MonthlyFormatter(pool, 1).format(calendar));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void itStreamsParallelSpansABatchAtATime() throws IOException {
+        AtomicInteger monthsRead = new AtomicInteger();
+        Calendar calendar = new Calendar() {
+            @Override
+            public Collection<Scheduable> between(LocalDateTime from, LocalDateTime to) {
+                monthsRead.incrementAndGet();
+                return super.between(from, to);
+            }
+        };
+        // a little over twenty years
+        for (int i = 0; i < 750; i++) {
+            calendar.addSchedulable(new Reminder("Reminder " + i, LocalDateTime.of(2017, 1, 1, 9, 0).plusDays(10L * i)));
+        }
+        AtomicInteger readBeforeFirstWrite = new AtomicInteger(-1);
+        StringWriter writer = new StringWriter() {
+            @Override
+            public void write(String text) {
+                readBeforeFirstWrite.compareAndSet(-1, monthsRead.get());
+                super.write(text);
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            new MonthlyFormatter(pool, 1).format(calendar, writer);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(new MonthlyFormatter().format(calendar), writer.toString());
+        assertTrue(readBeforeFirstWrite.get() > 0);
+        assertTrue(readBeforeFirstWrite.get() < monthsRead.get() / 2);
+    }
+
+    @Test
+    public void itNamesMonthsInTheLocaleItWasGiven() {
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(new Reminder("Reminder 1", LocalDateTime.of(2017, 1, 3, 4, 4)));
+        calendar.addSchedulable(new Reminder("Reminder 2", LocalDateTime.of(2017, 2, 3, 4, 4)));
+
+        String english = new MonthlyFormatter().format(calendar);
+
+        assertEquals(english.replace("January", "janvier").replace("February", "février"),
+                new MonthlyFormatter(Locale.FRANCE).format(calendar));
+        assertEquals(english.replace("January", "Januar").replace("February", "Februar"),
+                new CachingMonthlyFormatter(Locale.GERMANY).format(calendar));
+    }
+
+    @Test
+    public void itHeadsMonthsWithTheirStandaloneNames() {
+        Locale polish = new Locale("pl", "PL");
+        String heading = Month.JANUARY.getDisplayName(TextStyle.FULL_STANDALONE, polish);
+        // "styczeń" on its own, but "stycznia" inside a date
+        assertNotEquals(Month.JANUARY.getDisplayName(TextStyle.FULL, polish), heading);
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(new Reminder("Reminder 1", LocalDateTime.of(2017, 1, 3, 4, 4)));
+
+        assertEquals(new MonthlyFormatter().format(calendar).replace("January", heading),
+                new MonthlyFormatter(polish).format(calendar));
+        assertEquals(new MonthlyFormatter().format(calendar).replace("January", heading),
+                new CachingMonthlyFormatter(polish).format(calendar));
+    }
+
 }
@@ -1,15 +1,27 @@
 package com.galvanize.formatters;
 
+import com.galvanize.AgendaPage;
 import com.galvanize.Calendar;
+import com.galvanize.DisplayLocale;
 import com.galvanize.Event;
 import com.galvanize.Reminder;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 import static java.time.temporal.ChronoUnit.HOURS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ScheduleFormatterTest {
 
@@ -33,4 +45,79 @@ public class ScheduleFormatterTest {
         assertEquals(expected, formatter.format(calendar));
     }
 
+    @Test
+    public void itStreamsTheCalendarInChunks() throws IOException {
+        Calendar calendar = new Calendar();
+        for (int i = 0; i < 2000; i++) {
+            calendar.addSchedulable(new Event("Event " + i, LocalDateTime.of(2017, 1, 1, 9, 0).plusHours(7L * i), Duration.of(1, HOURS)));
+        }
+        List<Integer> chunks = new ArrayList<>();
+        StringWriter writer = new StringWriter() {
+            @Override
+            public void flush() {
+                chunks.add(getBuffer().length() - chunks.stream().mapToInt(Integer::intValue).sum());
+            }
+        };
+
+        calendar.format(new ScheduleFormatter(), writer);
+
+        assertEquals(new ScheduleFormatter().format(calendar), writer.toString());
+        assertTrue(chunks.size() > 10);
+        chunks.forEach(chunk -> assertTrue(chunk < ChunkedOutput.CHUNK_SIZE + 100, chunk + " characters in one chunk"));
+
+        StringWriter custom = new StringWriter();
+        calendar.format(c -> "Formatted", custom);
+        assertEquals("Formatted", custom.toString());
+    }
+
+    @Test
+    public void itFormatsAWindowOfDaysAPageAtATime() {
+        Calendar calendar = new Calendar();
+        Duration defaultDuration = Duration.of(1, HOURS);
+
+        calendar.addSchedulable(new Reminder("Before", LocalDateTime.of(2017, 1, 2, 23, 59)));
+        calendar.addSchedulable(new Event("Event 1", LocalDateTime.of(2017, 1, 3, 4, 4), defaultDuration));
+        calendar.addSchedulable(new Event("Event 2", LocalDateTime.of(2017, 1, 3, 5, 5), defaultDuration));
+        calendar.addSchedulable(new Reminder("Reminder 1", LocalDateTime.of(2017, 1, 4, 4, 4)));
+        calendar.addSchedulable(new Reminder("After", LocalDateTime.of(2017, 1, 5, 0, 0)));
+
+        ScheduleFormatter formatter = new ScheduleFormatter();
+        LocalDate from = LocalDate.of(2017, 1, 3);
+        LocalDate to = LocalDate.of(2017, 1, 4);
+
+        assertEquals("2017-01-03\n" +
+                " - Event 1 at Jan 3, 2017 4:04 AM (ends at Jan 3, 2017 5:04 AM)\n" +
+                " - Event 2 at Jan 3, 2017 5:05 AM (ends at Jan 3, 2017 6:05 AM)\n" +
+                "\n" +
+                "2017-01-04\n" +
+                " - Reminder 1 at Jan 4, 2017 4:04 AM (incomplete)\n\n", formatter.format(calendar, from, to));
+        assertEquals(formatter.format(calendar), formatter.format(calendar, LocalDate.MIN.plusDays(1), LocalDate.of(2017, 1, 5)));
+        assertThrows(IllegalArgumentException.class, () -> formatter.format(calendar, to, from));
+
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        AgendaPage page = calendar.agenda(from.atStartOfDay(), end, 1);
+        assertEquals("2017-01-03\n" +
+                " - Event 1 at Jan 3, 2017 4:04 AM (ends at Jan 3, 2017 5:04 AM)\n\n", formatter.format(page));
+        page = calendar.agenda(page.getNextCursor(), end, 1);
+        assertEquals("2017-01-03\n" +
+                " - Event 2 at Jan 3, 2017 5:05 AM (ends at Jan 3, 2017 6:05 AM)\n\n", formatter.format(page));
+        page = calendar.agenda(page.getNextCursor(), end, 2);
+        assertEquals("2017-01-04\n" +
+                " - Reminder 1 at Jan 4, 2017 4:04 AM (incomplete)\n\n", formatter.format(page));
+        assertFalse(page.hasMore());
+        assertEquals("", formatter.format(calendar.agenda(page.getNextCursor(), end, 2)));
+        assertThrows(IllegalArgumentException.class, () -> calendar.agenda(end, from.atStartOfDay(), 2));
+    }
+
+    @Test
+    public void itSpellsItemDatesInTheLocaleItWasGiven() {
+        Calendar calendar = new Calendar();
+        calendar.addSchedulable(new Reminder("Rappel", LocalDateTime.of(2017, 2, 3, 16, 4)));
+
+        for (Locale locale : new Locale[]{Locale.GERMANY, Locale.FRANCE, Locale.US}) {
+            String date = DateTimeFormatter.ofPattern(DisplayLocale.localizedPattern(locale), locale).format(LocalDateTime.of(2017, 2, 3, 16, 4));
+            assertEquals("2017-02-03\n - Rappel at " + date + " (incomplete)\n\n", new ScheduleFormatter(locale).format(calendar));
+        }
+    }
+
 }
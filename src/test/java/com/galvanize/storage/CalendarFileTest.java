@@ -0,0 +1,127 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.Completable;
+import com.galvanize.Event;
+import com.galvanize.Frequency;
+import com.galvanize.ICalendarItem;
+import com.galvanize.Owner;
+import com.galvanize.RecurrenceRule;
+import com.galvanize.RecurringEvent;
+import com.galvanize.Reminder;
+import com.galvanize.Scheduable;
+import com.galvanize.Todo;
+import com.galvanize.TodoList;
+import com.galvanize.formatters.MonthlyFormatter;
+import com.galvanize.formatters.ScheduleFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CalendarFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void itReopensACalendarAndTodoList() throws IOException {
+        Calendar calendar = new Calendar();
+        Event standup = new Event("Standup", LocalDateTime.of(2017, 1, 2, 9, 0), Duration.ofMinutes(15));
+        Reminder payRent = new Reminder("Pay rent", LocalDateTime.of(2017, 1, 1, 8, 0, 0, 500));
+        payRent.markComplete();
+        RecurringEvent retro = new RecurringEvent("Retro", LocalDateTime.of(2017, 1, 6, 16, 0), Duration.ofHours(1),
+                new RecurrenceRule(Frequency.WEEKLY, 2).times(4));
+        retro.except(LocalDateTime.of(2017, 1, 20, 16, 0));
+        calendar.addSchedulable(standup);
+        calendar.addSchedulable(payRent);
+        calendar.addSchedulable(retro);
+
+        TodoList todoList = new TodoList();
+        Todo ship = new Todo("Ship it", new Owner("Ada", "Lovelace", "ada@example.com", "Engineer"));
+        ship.setDescription("Ünïcödé is fine");
+        ship.markComplete();
+        todoList.add(ship);
+        todoList.add(new Todo("Fix the build", null));
+        todoList.add(payRent);
+
+        Path path = directory.resolve("calendar.bin");
+        CalendarFile.write(path, calendar, todoList);
+        CalendarFile file = CalendarFile.open(path);
+        Calendar reopened = file.calendar();
+        TodoList reopenedTodos = file.todoList();
+
+        assertEquals(strings(calendar.items()), strings(reopened.items()));
+        assertEquals(calendar.dates(), reopened.dates());
+        assertEquals(new ScheduleFormatter().format(calendar), new ScheduleFormatter().format(reopened));
+        assertEquals(new MonthlyFormatter().format(calendar), new MonthlyFormatter().format(reopened));
+        assertEquals(todoList.toString(), reopenedTodos.toString());
+
+        // UIDs and every field survive, not just what toString shows
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+        calendar.items().forEach(item -> expected.add(((ICalendarItem) item).iCalendar()));
+        reopened.items().forEach(item -> actual.add(((ICalendarItem) item).iCalendar()));
+        todoList.all().forEach(item -> expected.add(((ICalendarItem) item).iCalendar()));
+        reopenedTodos.all().forEach(item -> actual.add(((ICalendarItem) item).iCalendar()));
+        assertEquals(expected, actual);
+        Todo reopenedShip = (Todo) reopenedTodos.all().get(0);
+        assertEquals(ship.getDescription(), reopenedShip.getDescription());
+        assertEquals(ship.getOwner().getEmail(), reopenedShip.getOwner().getEmail());
+        assertNull(((Todo) reopenedTodos.all().get(1)).getOwner());
+
+        // a reminder on both the calendar and the todo list is still one object
+        Completable reopenedRent = reopenedTodos.all().get(2);
+        assertSame(reopenedRent, reopened.between(payRent.getStartTime(), payRent.getStartTime().plusNanos(1)).iterator().next());
+    }
+
+    @Test
+    public void itAnswersQueriesFromTheMappedColumns() throws IOException {
+        Calendar calendar = new Calendar();
+        LocalDateTime start = LocalDateTime.of(2017, 1, 1, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            calendar.addSchedulable(new Event("Event " + i, start.plusMinutes(37L * i), Duration.ofMinutes(45)));
+        }
+        Path path = directory.resolve("calendar.bin");
+        CalendarFile.write(path, calendar);
+        Calendar reopened = CalendarFile.open(path).calendar();
+
+        LocalDateTime from = start.plusDays(3);
+        LocalDateTime to = start.plusDays(4);
+        assertEquals(strings(calendar.between(from, to)), strings(reopened.between(from, to)));
+        assertEquals(strings(calendar.overlapping(from, to)), strings(reopened.overlapping(from, to)));
+        assertEquals(calendar.getFirstDateTime(), reopened.getFirstDateTime());
+        assertEquals(calendar.getLastDateTime(), reopened.getLastDateTime());
+        assertEquals(calendar.descriptionsFor(from.toLocalDate()), reopened.descriptionsFor(from.toLocalDate()));
+
+        Scheduable first = reopened.items().get(0);
+        assertSame(first, reopened.items().get(0));
+        assertThrows(UnsupportedOperationException.class, () -> reopened.addSchedulable(first));
+    }
+
+    @Test
+    public void itRejectsFilesItDidNotWrite() throws IOException {
+        Path path = directory.resolve("notes.txt");
+        Files.write(path, "not a calendar at all".getBytes());
+
+        assertThrows(IOException.class, () -> CalendarFile.open(path));
+    }
+
+    private static List<String> strings(Iterable<?> items) {
+        List<String> strings = new ArrayList<>();
+        items.forEach(item -> strings.add(item.toString()));
+        return strings;
+    }
+
+}
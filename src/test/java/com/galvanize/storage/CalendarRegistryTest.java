@@ -0,0 +1,152 @@
+package com.galvanize.storage;
+
+import com.galvanize.Event;
+import com.galvanize.Reminder;
+import com.galvanize.Todo;
+import com.galvanize.formatters.ScheduleFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CalendarRegistryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 9, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void itEvictsTheLeastRecentlyUsedTenantsToDisk() {
+        CalendarRegistry registry = CalendarRegistry.byCount(directory, 2);
+        CalendarRegistry.Tenant ada;
+        String schedule;
+        try (CalendarRegistry.Lease lease = registry.lease("ada")) {
+            ada = lease.getTenant();
+            ada.getCalendar().addSchedulable(new Event("Standup", START, Duration.ofMinutes(15)));
+            Reminder payRent = new Reminder("Pay rent", START.plusDays(1));
+            ada.getCalendar().addSchedulable(payRent);
+            ada.getTodoList().add(payRent);
+            ada.getTodoList().add(new Todo("Ship it", null));
+            schedule = new ScheduleFormatter().format(ada.getCalendar());
+        }
+
+        touch(registry, "bob");
+        assertSame(ada, touch(registry, "ada"));
+        touch(registry, "cy");
+
+        // bob was least recently used, so bob went
+        assertEquals(2, registry.residentTenants());
+        assertEquals(1, registry.evictions());
+        assertTrue(Files.exists(directory.resolve("bob.calendar")));
+        assertSame(ada, touch(registry, "ada"));
+
+        touch(registry, "bob");
+        touch(registry, "cy");
+        CalendarRegistry.Tenant reloaded = touch(registry, "ada");
+        assertNotSame(ada, reloaded);
+        assertEquals(schedule, new ScheduleFormatter().format(reloaded.getCalendar()));
+        assertEquals(ada.getTodoList().toString(), reloaded.getTodoList().toString());
+        assertSame(reloaded.getCalendar().items().get(1), reloaded.getTodoList().all().get(0));
+
+        assertEquals(2, registry.hits());
+        assertEquals(6, registry.misses());
+        assertEquals(4, registry.evictions());
+    }
+
+    @Test
+    public void itKeepsAnEstimatedByteBudget() {
+        long budget = 2 * CalendarRegistry.ESTIMATED_BYTES_PER_TENANT + 100 * CalendarRegistry.ESTIMATED_BYTES_PER_ITEM;
+        CalendarRegistry registry = CalendarRegistry.byBytes(directory, budget);
+        try (CalendarRegistry.Lease busy = registry.lease("busy")) {
+            for (int i = 0; i < 100; i++) {
+                busy.getCalendar().addSchedulable(new Reminder("Reminder " + i, START.plusHours(i)));
+            }
+        }
+        touch(registry, "quiet");
+        assertEquals(2, registry.residentTenants());
+
+        // busy was weighed again when its lease closed, so the next tenant makes room
+        touch(registry, "busy");
+        touch(registry, "another");
+        assertEquals(2, registry.residentTenants());
+        assertTrue(registry.residentWeight() <= budget);
+        assertEquals(100, touch(registry, "busy").getCalendar().size());
+    }
+
+    @Test
+    public void itNeverEvictsALeasedTenant() {
+        CalendarRegistry registry = CalendarRegistry.byCount(directory, 1);
+        Reminder late = new Reminder("Written after bob came and went", START);
+        try (CalendarRegistry.Lease ada = registry.lease("ada")) {
+            touch(registry, "bob");
+            assertEquals(1, registry.residentTenants());
+            assertEquals(1, registry.evictions());
+
+            // ada is still the resident copy, so this change isn't lost
+            ada.getCalendar().addSchedulable(late);
+            registry.flush();
+            assertFalse(Files.exists(directory.resolve("ada.calendar")));
+        }
+
+        touch(registry, "bob");
+        assertEquals(2, registry.evictions());
+        assertEquals(1, touch(registry, "ada").getCalendar().size());
+        assertEquals(late.toString(), touch(registry, "ada").getCalendar().items().get(0).toString());
+    }
+
+    @Test
+    public void itKeepsTenantsItCouldNotWriteAndTakesNoLease() throws Exception {
+        CalendarRegistry registry = CalendarRegistry.byCount(directory, 1);
+        touch(registry, "ada");
+        // the temporary file writes go through can't be made while a directory holds its name
+        Path blocked = Files.createDirectory(directory.resolve("ada.calendar.tmp"));
+
+        assertThrows(UncheckedIOException.class, () -> registry.lease("bob"));
+        assertEquals(2, registry.residentTenants());
+        assertEquals(0, registry.evictions());
+
+        // the failed write may have cleared it away already
+        Files.deleteIfExists(blocked);
+        touch(registry, "carol");
+        assertEquals(1, registry.residentTenants());
+        assertEquals(2, registry.evictions());
+        assertTrue(Files.exists(directory.resolve("ada.calendar")));
+        assertTrue(Files.exists(directory.resolve("bob.calendar")));
+    }
+
+    @Test
+    public void itRefusesTenantsFromAClosedLease() {
+        CalendarRegistry registry = CalendarRegistry.byCount(directory, 2);
+        CalendarRegistry.Lease lease = registry.lease("ada");
+        lease.close();
+        lease.close();
+
+        assertThrows(IllegalStateException.class, lease::getCalendar);
+    }
+
+    @Test
+    public void itRejectsUserIdsThatAreNotPlainFileNames() {
+        CalendarRegistry registry = CalendarRegistry.byCount(directory, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.lease("../escape"));
+    }
+
+    private static CalendarRegistry.Tenant touch(CalendarRegistry registry, String userId) {
+        try (CalendarRegistry.Lease lease = registry.lease(userId)) {
+            return lease.getTenant();
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.Event;
+import com.galvanize.Reminder;
+import com.galvanize.Scheduable;
+import com.galvanize.formatters.ScheduleFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static java.time.temporal.ChronoUnit.HOURS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColumnarScheduleStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 0, 0);
+
+    @Test
+    public void itMatchesTheTreeStore() {
+        Random random = new Random(7);
+        List<Scheduable> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime startsAt = START.plusMinutes(random.nextInt(60 * 24 * 90)).withNano(random.nextInt(3));
+            items.add(i % 2 == 0
+                    ? new Event("Event " + i, startsAt, Duration.ofMinutes(30))
+                    : new Reminder("Reminder " + i, startsAt));
+        }
+
+        ColumnarScheduleStore columnar = new ColumnarScheduleStore();
+        TreeScheduleStore tree = new TreeScheduleStore();
+        for (Scheduable item : items.subList(0, 1000)) {
+            columnar.add(item);
+            tree.add(item);
+        }
+        columnar.addAll(items.subList(1000, items.size()));
+        tree.addAll(items.subList(1000, items.size()));
+
+        assertEquals(tree.size(), columnar.size());
+        assertEquals(tree.items(), columnar.items());
+        assertEquals(tree.dates(), columnar.dates());
+        assertEquals(tree.getFirstDateTime(), columnar.getFirstDateTime());
+        assertEquals(tree.getLastDateTime(), columnar.getLastDateTime());
+        for (int i = 0; i < 500; i++) {
+            Scheduable removed = items.get(random.nextInt(items.size()));
+            assertEquals(tree.remove(removed), columnar.remove(removed));
+        }
+
+        assertEquals(tree.size(), columnar.size());
+        assertEquals(tree.items(), columnar.items());
+        assertEquals(tree.dates(), columnar.dates());
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime from = START.plusMinutes(random.nextInt(60 * 24 * 90));
+            LocalDateTime to = from.plusMinutes(random.nextInt(60 * 24));
+            assertEquals(new ArrayList<>(tree.between(from, to)), new ArrayList<>(columnar.between(from, to)));
+        }
+    }
+
+    @Test
+    public void itWorksAsACalendarStorageMode() {
+        Calendar calendar = new Calendar(new ColumnarScheduleStore());
+        Duration defaultDuration = Duration.of(1, HOURS);
+
+        calendar.addSchedulable(new Reminder("Reminder 1", LocalDateTime.of(2017, 2, 3, 4, 4)));
+        calendar.addSchedulable(new Event("Event 1", LocalDateTime.of(2017, 1, 3, 4, 4), defaultDuration));
+        calendar.addSchedulable(new Event("Event 2", LocalDateTime.of(2017, 1, 3, 5, 5), defaultDuration));
+
+        String expected = "2017-01-03\n" +
+                " - Event 1 at Jan 3, 2017 4:04 AM (ends at Jan 3, 2017 5:04 AM)\n" +
+                " - Event 2 at Jan 3, 2017 5:05 AM (ends at Jan 3, 2017 6:05 AM)\n" +
+                "\n" +
+                "2017-02-03\n" +
+                " - Reminder 1 at Feb 3, 2017 4:04 AM (incomplete)\n\n";
+
+        assertEquals(expected, calendar.format(new ScheduleFormatter()));
+    }
+
+    @Test
+    public void itKeepsRangesLive() {
+        ColumnarScheduleStore store = new ColumnarScheduleStore();
+        Reminder first = new Reminder("Reminder 1", START);
+        assertNull(store.getFirstDateTime());
+
+        store.add(first);
+        Collection<Scheduable> range = store.between(START, START.plusDays(1));
+        assertEquals(Arrays.asList(first), new ArrayList<>(range));
+
+        Reminder second = new Reminder("Reminder 2", START);
+        store.add(new Reminder("Earlier", START.minusHours(1)));
+        store.add(second);
+        assertEquals(2, range.size());
+        assertEquals(Arrays.asList(first, second), new ArrayList<>(range));
+
+        Iterator<Scheduable> running = range.iterator();
+        running.next();
+        store.remove(first);
+        assertThrows(ConcurrentModificationException.class, running::next);
+        assertEquals(Arrays.asList(second), new ArrayList<>(range));
+    }
+
+}
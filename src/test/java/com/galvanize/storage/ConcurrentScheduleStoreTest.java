@@ -0,0 +1,163 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.Event;
+import com.galvanize.Reminder;
+import com.galvanize.Scheduable;
+import com.galvanize.formatters.ScheduleFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentScheduleStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 0, 0);
+    private static final int WRITERS = 8;
+    private static final int ITEMS_PER_WRITER = 5000;
+
+    @Test
+    public void itAcceptsWritesFromManyThreadsWhileReadersFormatSnapshots() throws Exception {
+        Calendar calendar = new Calendar(new ConcurrentScheduleStore());
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITEMS_PER_WRITER; i++) {
+                    LocalDateTime startsAt = START.plusMinutes((i * 7919L + writer) % (60 * 24 * 60));
+                    calendar.addSchedulable(i % 2 == 0
+                            ? new Event("Event " + writer + "/" + i, startsAt, Duration.ofMinutes(30))
+                            : new Reminder("Reminder " + writer + "/" + i, startsAt));
+                }
+                return null;
+            }));
+        }
+
+        Future<Integer> reader = executor.submit(() -> {
+            start.await();
+            int snapshots = 0;
+            int lastSize = 0;
+            while (writing.get()) {
+                Calendar snapshot = calendar.snapshot();
+                String schedule = snapshot.format(new ScheduleFormatter());
+                int descriptions = 0;
+                for (LocalDate date : snapshot.dates()) {
+                    int forDate = snapshot.descriptionsFor(date).size();
+                    assertTrue(forDate > 0, "every listed date should have something on it");
+                    descriptions += forDate;
+                }
+                int size = snapshot.items().size();
+                assertEquals(size, descriptions);
+                assertEquals(size, countLines(schedule, " - "));
+                assertTrue(size >= lastSize, "snapshots should only grow");
+                lastSize = size;
+                snapshots++;
+            }
+            return snapshots;
+        });
+
+        start.countDown();
+        for (Future<?> writer : writers) writer.get(60, TimeUnit.SECONDS);
+        writing.set(false);
+        assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+        executor.shutdown();
+
+        List<Scheduable> items = calendar.items();
+        assertEquals(WRITERS * ITEMS_PER_WRITER, items.size());
+        for (int i = 1; i < items.size(); i++) {
+            assertTrue(!items.get(i).getStartTime().isBefore(items.get(i - 1).getStartTime()));
+        }
+        assertEquals(WRITERS * ITEMS_PER_WRITER / 2, calendar.overlapping(START, START.plusDays(61)).size());
+    }
+
+    @Test
+    public void itKeepsSnapshotsStable() {
+        Calendar calendar = new Calendar(new ConcurrentScheduleStore());
+        Reminder first = new Reminder("First", START);
+        Reminder second = new Reminder("Second", START.plusDays(1));
+        calendar.addSchedulable(first);
+
+        Calendar snapshot = calendar.snapshot();
+        calendar.addSchedulable(second);
+
+        assertEquals(1, snapshot.items().size());
+        assertEquals(START, snapshot.getLastDateTime());
+        assertEquals(1, snapshot.dates().size());
+        assertEquals(2, calendar.items().size());
+        assertEquals(START.plusDays(1), calendar.getLastDateTime());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.addSchedulable(second));
+
+        assertTrue(calendar.remove(first));
+        assertFalse(calendar.remove(first));
+        // the snapshot can lose a removed item, but its size always agrees with what it lists
+        assertEquals(snapshot.items().size(), snapshot.size());
+        assertEquals(1, calendar.items().size());
+        assertEquals(START.plusDays(1), calendar.getFirstDateTime());
+        assertTrue(calendar.reschedule(second, START.plusDays(2)));
+        assertEquals(START.plusDays(2), calendar.getFirstDateTime());
+        assertEquals(1, calendar.snapshot().items().size());
+    }
+
+    @Test
+    public void itLetsWritersFinishWhileAnEarlierOneIsStalled() throws Exception {
+        ConcurrentScheduleStore store = new ConcurrentScheduleStore();
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        // a batch of one is never sorted, so its first start time read comes after it has taken its sequence number
+        Scheduable slow = () -> {
+            stalled.countDown();
+            try {
+                resume.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return START;
+        };
+        Reminder quick = new Reminder("Quick", START.plusHours(1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> stalledWriter = executor.submit(() -> store.addAll(Collections.singletonList(slow)));
+        assertTrue(stalled.await(10, TimeUnit.SECONDS));
+        executor.submit(() -> store.add(quick)).get(10, TimeUnit.SECONDS);
+
+        // the later write has landed, but readers only see it once the earlier one is published
+        assertEquals(0, store.size());
+        assertTrue(store.items().isEmpty());
+
+        resume.countDown();
+        stalledWriter.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertEquals(2, store.size());
+        assertEquals(Arrays.asList(slow, quick), store.items());
+    }
+
+    private static int countLines(String text, String prefix) {
+        int count = 0;
+        for (String line : text.split("\n")) {
+            if (line.startsWith(prefix)) count++;
+        }
+        return count;
+    }
+
+}
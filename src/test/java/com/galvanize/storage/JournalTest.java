@@ -0,0 +1,315 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.Completable;
+import com.galvanize.Event;
+import com.galvanize.Frequency;
+import com.galvanize.Owner;
+import com.galvanize.RecurrenceRule;
+import com.galvanize.RecurringEvent;
+import com.galvanize.Reminder;
+import com.galvanize.Todo;
+import com.galvanize.TodoList;
+import com.galvanize.formatters.ScheduleFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 9, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void itReplaysEveryChange() throws IOException {
+        Path path = directory.resolve("calendar.journal");
+        Event standup = new Event("Standup", START, Duration.ofMinutes(15));
+        Event lunch = new Event("Lunch", START.plusHours(3), Duration.ofHours(1));
+        Reminder payRent = new Reminder("Pay rent", START.plusDays(1));
+        Todo ship = new Todo("Ship it", new Owner("Ada", "Lovelace", "ada@example.com", "Engineer"));
+        RecurringEvent review = new RecurringEvent("Review", START.plusDays(3), Duration.ofMinutes(30),
+                new RecurrenceRule(Frequency.DAILY, 1).times(4));
+
+        String schedule;
+        String todos;
+        try (Journal journal = Journal.open(path)) {
+            Calendar calendar = journal.calendar();
+            TodoList todoList = journal.todoList();
+            calendar.addSchedulable(standup);
+            calendar.addAll(Arrays.asList(lunch, payRent));
+            todoList.add(ship);
+            todoList.add(payRent);
+            todoList.markComplete(ship);
+            todoList.completeAll();
+            todoList.markIncomplete(payRent);
+            calendar.reschedule(payRent, START.plusDays(2));
+            calendar.remove(lunch);
+            calendar.addSchedulable(review);
+            calendar.except(review, START.plusDays(5));
+
+            schedule = new ScheduleFormatter().format(calendar);
+            todos = todoList.toString();
+        }
+
+        try (Journal journal = Journal.open(path)) {
+            assertEquals(schedule, new ScheduleFormatter().format(journal.calendar()));
+            assertEquals(todos, journal.todoList().toString());
+            Todo replayedShip = (Todo) journal.todoList().all().get(0);
+            assertEquals(ship.getCompletedAt(), replayedShip.getCompletedAt());
+
+            // the reminder on both the calendar and the todo list comes back as one object
+            Completable replayedRent = journal.todoList().all().get(1);
+            assertSame(replayedRent, journal.calendar().items().get(1));
+            RecurringEvent replayedReview = (RecurringEvent) journal.calendar().items().get(2);
+            assertEquals(review.getExceptions(), replayedReview.getExceptions());
+        }
+    }
+
+    @Test
+    public void itRecoversFromARecordTornMidWrite() throws IOException {
+        Path path = directory.resolve("calendar.journal");
+        List<Long> sizes = new ArrayList<>();
+        try (Journal journal = Journal.open(path)) {
+            for (int i = 0; i < 5; i++) {
+                journal.calendar().addSchedulable(new Event("Event " + i, START.plusHours(i), Duration.ofMinutes(30)));
+                sizes.add(Files.size(path));
+            }
+        }
+
+        // cut the last frame in half, as a crash during the write would
+        long torn = (sizes.get(3) + sizes.get(4)) / 2;
+        try (FileChannel channel = FileChannel.open(path, WRITE)) {
+            channel.truncate(torn);
+        }
+
+        try (Journal journal = Journal.open(path)) {
+            assertEquals(Arrays.asList(
+                    "Event 0 at Jan 1, 2017 9:00 AM (ends at Jan 1, 2017 9:30 AM)",
+                    "Event 1 at Jan 1, 2017 10:00 AM (ends at Jan 1, 2017 10:30 AM)",
+                    "Event 2 at Jan 1, 2017 11:00 AM (ends at Jan 1, 2017 11:30 AM)",
+                    "Event 3 at Jan 1, 2017 12:00 PM (ends at Jan 1, 2017 12:30 PM)"
+            ), journal.calendar().descriptionsFor(START.toLocalDate()));
+            assertEquals((long) sizes.get(3), Files.size(path));
+
+            journal.calendar().addSchedulable(new Event("Event 5", START.plusHours(5), Duration.ofMinutes(30)));
+        }
+
+        try (Journal journal = Journal.open(path)) {
+            assertEquals(5, journal.calendar().items().size());
+            assertEquals("Event 5", ((Event) journal.calendar().items().get(4)).getTitle());
+        }
+    }
+
+    @Test
+    public void itReplaysFramesLargerThanItsReadBuffer() throws IOException {
+        Path path = directory.resolve("calendar.journal");
+        char[] title = new char[200_000];
+        Arrays.fill(title, 'x');
+        try (Journal journal = Journal.open(path)) {
+            journal.calendar().addSchedulable(new Reminder("Before", START));
+            journal.calendar().addSchedulable(new Event(new String(title), START.plusHours(1), Duration.ofMinutes(30)));
+            journal.calendar().addSchedulable(new Reminder("After", START.plusHours(2)));
+        }
+        long size = Files.size(path);
+
+        try (Journal journal = Journal.open(path)) {
+            assertEquals(3, journal.calendar().items().size());
+            assertEquals(new String(title), ((Event) journal.calendar().items().get(1)).getTitle());
+            assertEquals(size, Files.size(path));
+        }
+    }
+
+    @Test
+    public void itWritesConcurrentChangesDurably() throws Exception {
+        Path path = directory.resolve("calendar.journal");
+        int writers = 8;
+        int writesEach = 200;
+        try (Journal journal = Journal.open(path)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < writesEach; i++) {
+                        journal.calendar().addSchedulable(new Reminder("Reminder " + writer + "-" + i, START.plusMinutes(i)));
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) thread.join();
+        }
+
+        try (Journal journal = Journal.open(path)) {
+            assertEquals(writers * writesEach, journal.calendar().items().size());
+        }
+    }
+
+    @Test
+    public void itGroupsWritesThatArriveDuringASyncIntoOne() throws Exception {
+        Path path = directory.resolve("calendar.journal");
+        CountDownLatch syncing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int writers = 8;
+        try (Journal journal = Journal.open(new StallingChannel(FileChannel.open(path, CREATE, READ, WRITE), syncing, release))) {
+            List<Thread> threads = new ArrayList<>();
+            threads.add(new Thread(() -> journal.calendar().addSchedulable(new Reminder("Reminder 0", START))));
+            threads.get(0).start();
+            assertTrue(syncing.await(10, TimeUnit.SECONDS));
+
+            // these all append while the first sync is held up, so they should share the next one
+            for (int w = 1; w < writers; w++) {
+                int writer = w;
+                threads.add(new Thread(() -> journal.calendar().addSchedulable(new Reminder("Reminder " + writer, START.plusMinutes(writer)))));
+                threads.get(w).start();
+            }
+            while (true) {
+                // syncs() takes the journal's lock, so the size read after it is up to date
+                assertEquals(0, journal.syncs());
+                if (journal.calendar().size() == writers) break;
+                Thread.yield();
+            }
+            release.countDown();
+            for (Thread thread : threads) thread.join(10_000);
+
+            assertEquals(2, journal.syncs());
+        }
+
+        try (Journal journal = Journal.open(path)) {
+            assertEquals(writers, journal.calendar().items().size());
+        }
+    }
+
+    // a file channel whose first force waits until the test lets it go
+    private static final class StallingChannel extends FileChannel {
+
+        private final FileChannel channel;
+        private final CountDownLatch syncing;
+        private final CountDownLatch release;
+
+        private StallingChannel(FileChannel channel, CountDownLatch syncing, CountDownLatch release) {
+            this.channel = channel;
+            this.syncing = syncing;
+            this.release = release;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (syncing.getCount() > 0) {
+                syncing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            channel.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return channel.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return channel.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return channel.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return channel.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+
+}
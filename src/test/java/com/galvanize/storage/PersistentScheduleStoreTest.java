@@ -0,0 +1,121 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.Event;
+import com.galvanize.Reminder;
+import com.galvanize.Scheduable;
+import com.galvanize.formatters.MonthlyFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PersistentScheduleStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 0, 0);
+
+    @Test
+    public void itMatchesTheTreeStore() {
+        Random random = new Random(5);
+        List<Scheduable> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime startsAt = START.plusMinutes(random.nextInt(60 * 24 * 90)).withNano(random.nextInt(3));
+            items.add(i % 2 == 0
+                    ? new Event("Event " + i, startsAt, Duration.ofMinutes(30))
+                    : new Reminder("Reminder " + i, startsAt));
+        }
+
+        PersistentScheduleStore persistent = new PersistentScheduleStore();
+        TreeScheduleStore tree = new TreeScheduleStore();
+        assertNull(persistent.getFirstDateTime());
+        for (Scheduable item : items.subList(0, 1000)) {
+            persistent.add(item);
+            tree.add(item);
+        }
+        persistent.addAll(items.subList(1000, items.size()));
+        tree.addAll(items.subList(1000, items.size()));
+        for (int i = 0; i < 1000; i++) {
+            Scheduable removed = items.get(random.nextInt(items.size()));
+            assertEquals(tree.remove(removed), persistent.remove(removed));
+        }
+
+        assertEquals(tree.size(), persistent.size());
+        assertEquals(tree.items(), persistent.items());
+        assertEquals(tree.dates(), persistent.dates());
+        assertEquals(tree.getFirstDateTime(), persistent.getFirstDateTime());
+        assertEquals(tree.getLastDateTime(), persistent.getLastDateTime());
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime from = START.plusMinutes(random.nextInt(60 * 24 * 90));
+            LocalDateTime to = from.plusMinutes(random.nextInt(60 * 24));
+            assertEquals(new ArrayList<>(tree.between(from, to)), new ArrayList<>(persistent.between(from, to)));
+            assertEquals(tree.between(from, to).size(), persistent.between(from, to).size());
+        }
+    }
+
+    @Test
+    public void itKeepsEveryVersionItHandsOut() {
+        PersistentScheduleStore store = new PersistentScheduleStore();
+        List<ScheduleStore> versions = new ArrayList<>();
+        List<List<Scheduable>> expected = new ArrayList<>();
+        List<Scheduable> added = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Reminder reminder = new Reminder("Reminder " + i, START.plusHours((i * 37) % 200));
+            store.add(reminder);
+            added.add(reminder);
+            if (i % 3 == 0) {
+                Scheduable removed = added.remove(added.size() / 2);
+                store.remove(removed);
+            }
+            versions.add(store.snapshot());
+            List<Scheduable> sorted = new ArrayList<>(added);
+            sorted.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+            expected.add(sorted);
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(expected.get(i).size(), versions.get(i).size());
+            assertEquals(expected.get(i), versions.get(i).items());
+        }
+        assertThrows(UnsupportedOperationException.class, () -> versions.get(0).add(new Reminder("Late", START)));
+    }
+
+    @Test
+    public void itKeepsRangesLive() {
+        PersistentScheduleStore store = new PersistentScheduleStore();
+        Reminder first = new Reminder("Reminder 1", START);
+        store.add(first);
+        Collection<Scheduable> range = store.between(START, START.plusDays(1));
+        ScheduleStore snapshot = store.snapshot();
+
+        Reminder second = new Reminder("Reminder 2", START.plusHours(1));
+        store.add(second);
+        assertEquals(2, range.size());
+        assertEquals(Arrays.asList(first, second), new ArrayList<>(range));
+        assertEquals(Arrays.asList(first), new ArrayList<>(snapshot.between(START, START.plusDays(1))));
+    }
+
+    @Test
+    public void itRendersAStableSnapshotWhileWritesArrive() {
+        Calendar calendar = new Calendar(new PersistentScheduleStore());
+        calendar.addSchedulable(new Event("Event 1", START.plusDays(3), Duration.ofHours(1)));
+        Calendar snapshot = calendar.snapshot();
+        String rendered = snapshot.format(new MonthlyFormatter());
+
+        calendar.addSchedulable(new Event("Event 2", START.plusDays(10), Duration.ofHours(1)));
+        calendar.addSchedulable(new Event("Event 3", START.plusMonths(1), Duration.ofHours(1)));
+
+        assertEquals(rendered, snapshot.format(new MonthlyFormatter()));
+        assertEquals(1, snapshot.items().size());
+        assertEquals(3, calendar.items().size());
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.galvanize.storage;
+
+import com.galvanize.Calendar;
+import com.galvanize.Event;
+import com.galvanize.Reminder;
+import com.galvanize.Scheduable;
+import com.galvanize.formatters.MonthlyFormatter;
+import com.galvanize.formatters.ScheduleFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedScheduleStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2015, 1, 1, 0, 0);
+    private static final int MINUTES = 60 * 24 * 365 * 3;
+
+    @Test
+    public void itMatchesTheTreeStoreForEveryBucketSize() {
+        Random random = new Random(11);
+        List<Scheduable> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime startsAt = START.plusMinutes(random.nextInt(MINUTES));
+            items.add(i % 2 == 0
+                    ? new Event("Event " + i, startsAt, Duration.ofMinutes(30))
+                    : new Reminder("Reminder " + i, startsAt));
+        }
+
+        for (ChronoUnit bucket : new ChronoUnit[]{ChronoUnit.DAYS, ChronoUnit.WEEKS, ChronoUnit.MONTHS, ChronoUnit.YEARS}) {
+            ShardedScheduleStore sharded = new ShardedScheduleStore(bucket);
+            TreeScheduleStore tree = new TreeScheduleStore();
+            for (Scheduable item : items.subList(0, 1000)) {
+                sharded.add(item);
+                tree.add(item);
+            }
+            sharded.addAll(items.subList(1000, items.size()));
+            tree.addAll(items.subList(1000, items.size()));
+            for (int i = 0; i < 300; i++) {
+                Scheduable removed = items.get(random.nextInt(items.size()));
+                assertEquals(tree.remove(removed), sharded.remove(removed));
+            }
+
+            assertEquals(tree.size(), sharded.size());
+            assertEquals(tree.items(), sharded.items());
+            assertEquals(tree.dates(), sharded.dates());
+            assertEquals(tree.getFirstDateTime(), sharded.getFirstDateTime());
+            assertEquals(tree.getLastDateTime(), sharded.getLastDateTime());
+            assertEquals(tree.items(), sharded.snapshot().items());
+            for (int i = 0; i < 100; i++) {
+                LocalDateTime from = START.plusMinutes(random.nextInt(MINUTES));
+                LocalDateTime to = from.plusMinutes(random.nextInt(60 * 24 * 120));
+                assertEquals(new ArrayList<>(tree.between(from, to)), new ArrayList<>(sharded.between(from, to)), bucket.toString());
+            }
+        }
+    }
+
+    @Test
+    public void itFormatsTheSameAsAnUnshardedCalendar() {
+        Calendar sharded = new Calendar(new ShardedScheduleStore());
+        Calendar plain = new Calendar();
+        for (int i = 0; i < 200; i++) {
+            Event event = new Event("Event " + i, START.plusHours(97L * i), Duration.ofMinutes(45));
+            sharded.addSchedulable(event);
+            plain.addSchedulable(event);
+        }
+
+        assertEquals(plain.format(new ScheduleFormatter()), sharded.format(new ScheduleFormatter()));
+        assertEquals(plain.format(new MonthlyFormatter()), sharded.format(new MonthlyFormatter()));
+        assertEquals(plain.snapshot().format(new MonthlyFormatter()), sharded.snapshot().format(new MonthlyFormatter()));
+        assertThrows(UnsupportedOperationException.class, () -> sharded.snapshot().addSchedulable(new Reminder("Late", START)));
+    }
+
+    @Test
+    public void itReadsRangesStraightThroughTheBuckets() {
+        ShardedScheduleStore store = new ShardedScheduleStore(ChronoUnit.WEEKS);
+        Reminder first = new Reminder("First", START.plusDays(1));
+        Reminder last = new Reminder("Last", START.plusDays(30));
+        store.add(first);
+        store.add(last);
+
+        Collection<Scheduable> range = store.between(START, START.plusDays(60));
+        assertEquals(2, range.size());
+        assertEquals(Arrays.asList(first, last), new ArrayList<>(range));
+
+        // the view walks the buckets as they are, including ones made after it
+        Reminder middle = new Reminder("Middle", START.plusDays(15));
+        store.add(middle);
+        store.remove(first);
+        assertEquals(2, range.size());
+        assertEquals(Arrays.asList(middle, last), new ArrayList<>(range));
+        assertTrue(store.between(START.plusDays(2), START.plusDays(14)).isEmpty());
+    }
+
+    @Test
+    public void itReadsRangesAcrossManyBucketsOnThePool() {
+        AtomicInteger workers = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(2, p -> {
+            workers.incrementAndGet();
+            return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+        }, null, false);
+        try {
+            ShardedScheduleStore store = new ShardedScheduleStore(ChronoUnit.DAYS, pool);
+            TreeScheduleStore expected = new TreeScheduleStore();
+            for (int i = 0; i < 500; i++) {
+                Reminder reminder = new Reminder("Reminder " + i, START.plusHours(7L * i));
+                store.add(reminder);
+                expected.add(reminder);
+            }
+
+            Collection<Scheduable> range = store.between(START.plusDays(3), START.plusDays(120));
+            assertEquals(new ArrayList<>(expected.between(START.plusDays(3), START.plusDays(120))), new ArrayList<>(range));
+            assertEquals(expected.between(START.plusDays(3), START.plusDays(120)).size(), range.size());
+            assertTrue(workers.get() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void itDropsBucketsOnceTheyAreEmpty() {
+        ShardedScheduleStore store = new ShardedScheduleStore(ChronoUnit.DAYS);
+        for (int round = 0; round < 20; round++) {
+            List<Reminder> reminders = new ArrayList<>();
+            for (int i = 0; i < 50; i++) reminders.add(new Reminder("Reminder " + i, START.plusDays(50L * round + i)));
+            store.addAll(reminders);
+            assertEquals(50, store.buckets());
+            reminders.forEach(store::remove);
+            assertEquals(0, store.buckets());
+        }
+        assertEquals(0, store.size());
+        assertNull(store.getFirstDateTime());
+    }
+
+    @Test
+    public void itAcceptsWritesToDifferentMonthsFromManyThreads() throws Exception {
+        ShardedScheduleStore store = new ShardedScheduleStore();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 6; w++) {
+            LocalDateTime month = START.plusMonths(w);
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    store.add(new Reminder("Reminder " + i, month.plusMinutes(i)));
+                    store.between(month, month.plusDays(1)).size();
+                }
+            }));
+        }
+        for (Future<?> writer : writers) writer.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(12000, store.size());
+        assertEquals(START, store.getFirstDateTime());
+        assertEquals(6 * 2, store.dates().size());
+    }
+
+}
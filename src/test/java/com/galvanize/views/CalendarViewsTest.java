@@ -0,0 +1,97 @@
+package com.galvanize.views;
+
+import com.galvanize.Calendar;
+import com.galvanize.Event;
+import com.galvanize.Frequency;
+import com.galvanize.RecurrenceRule;
+import com.galvanize.RecurringEvent;
+import com.galvanize.Reminder;
+import com.galvanize.Scheduable;
+import com.galvanize.storage.ConcurrentScheduleStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CalendarViewsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 9, 0);
+
+    @Test
+    public void itKeepsViewsUpToDateAsTheCalendarChanges() {
+        Calendar calendar = new Calendar();
+        Reminder early = new Reminder("Early", START);
+        calendar.addSchedulable(early);
+
+        DayCounts counts = DayCounts.of(calendar);
+        OccupiedDays occupied = OccupiedDays.of(calendar);
+        TimeBounds bounds = TimeBounds.of(calendar);
+        assertEquals(1, counts.countOn(START.toLocalDate()));
+        assertEquals(START, bounds.getFirstDateTime());
+
+        Event late = new Event("Late", START.plusDays(3), Duration.ofHours(1));
+        calendar.addAll(Arrays.asList(late, new Reminder("Also early", START.plusHours(1))));
+        calendar.addSchedulable(new RecurringEvent("Standup", START.minusDays(10), Duration.ofMinutes(15),
+                new RecurrenceRule(Frequency.DAILY, 1)));
+        assertEquals(2, counts.countOn(START.toLocalDate()));
+        assertEquals(Arrays.asList(START.toLocalDate(), START.toLocalDate().plusDays(3)), new ArrayList<>(occupied.days()));
+        assertEquals(START, bounds.getFirstDateTime());
+        assertEquals(START.plusDays(3), bounds.getLastDateTime());
+
+        calendar.reschedule(early, START.plusDays(5));
+        calendar.remove(late);
+        assertEquals(1, counts.countOn(START.toLocalDate()));
+        assertEquals(0, counts.countOn(START.toLocalDate().plusDays(3)));
+        assertFalse(occupied.isOccupied(START.toLocalDate().plusDays(3)));
+        assertTrue(occupied.isOccupied(START.toLocalDate().plusDays(5)));
+        assertEquals(START.plusHours(1), bounds.getFirstDateTime());
+        assertEquals(START.plusDays(5), bounds.getLastDateTime());
+
+        calendar.remove(early);
+        calendar.remove(calendar.items().get(calendar.items().size() - 1));
+        assertTrue(occupied.days().isEmpty());
+        assertNull(bounds.getFirstDateTime());
+    }
+
+    @Test
+    public void itMatchesTheCalendarAfterConcurrentWrites() throws InterruptedException {
+        Calendar calendar = new Calendar(new ConcurrentScheduleStore());
+        DayCounts counts = DayCounts.of(calendar);
+        OccupiedDays occupied = OccupiedDays.of(calendar);
+        TimeBounds bounds = TimeBounds.of(calendar);
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            Random random = new Random(w);
+            writers.add(new Thread(() -> {
+                List<Scheduable> mine = new ArrayList<>();
+                for (int i = 0; i < 2000; i++) {
+                    Reminder reminder = new Reminder("Reminder", START.plusMinutes(random.nextInt(60 * 24 * 60)));
+                    calendar.addSchedulable(reminder);
+                    mine.add(reminder);
+                    if (i % 3 == 0) calendar.remove(mine.remove(random.nextInt(mine.size())));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) writer.join();
+
+        assertEquals(calendar.dates(), new ArrayList<>(occupied.days()));
+        for (LocalDate date : calendar.dates()) {
+            assertEquals(calendar.descriptionsFor(date).size(), counts.countOn(date));
+        }
+        assertEquals(calendar.getFirstDateTime(), bounds.getFirstDateTime());
+        assertEquals(calendar.getLastDateTime(), bounds.getLastDateTime());
+    }
+
+}